@@ -6,11 +6,17 @@ import com.example.demo.auth.UserRole;
 import com.example.demo.conversation.Conversation;
 import com.example.demo.conversation.ConversationMessageRepository;
 import com.example.demo.conversation.ConversationRepository;
+import com.example.demo.house.HouseListingChangedEvent;
+import com.example.demo.house.HouseReservationChangedEvent;
+import com.example.demo.house.SecondHandHouse;
 import com.example.demo.house.SecondHandHouseRepository;
+import com.example.demo.order.HouseOrder;
 import com.example.demo.order.HouseOrderRepository;
+import com.example.demo.order.OrderStatus;
 import com.example.demo.wallet.UserWalletRepository;
 import com.example.demo.wallet.WalletTransactionRepository;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -40,6 +46,7 @@ public class UserAdminController {
     private final ConversationMessageRepository conversationMessageRepository;
     private final UserWalletRepository userWalletRepository;
     private final WalletTransactionRepository walletTransactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserAdminController(UserAccountRepository userAccountRepository,
                                HouseOrderRepository houseOrderRepository,
@@ -47,7 +54,8 @@ public class UserAdminController {
                                ConversationRepository conversationRepository,
                                ConversationMessageRepository conversationMessageRepository,
                                UserWalletRepository userWalletRepository,
-                               WalletTransactionRepository walletTransactionRepository) {
+                               WalletTransactionRepository walletTransactionRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.userAccountRepository = userAccountRepository;
         this.houseOrderRepository = houseOrderRepository;
         this.secondHandHouseRepository = secondHandHouseRepository;
@@ -55,6 +63,7 @@ public class UserAdminController {
         this.conversationMessageRepository = conversationMessageRepository;
         this.userWalletRepository = userWalletRepository;
         this.walletTransactionRepository = walletTransactionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // 获取全量用户列表并按信誉分排序
@@ -126,9 +135,14 @@ public class UserAdminController {
             );
             conversationRepository.deleteAll(conversations);
         }
-        houseOrderRepository.deleteAll(
-                houseOrderRepository.findByBuyer_UsernameOrSeller_UsernameOrderByCreatedAtDesc(username, username)
-        );
+        List<HouseOrder> orders = houseOrderRepository
+                .findByBuyer_UsernameOrSeller_UsernameOrderByCreatedAtDesc(username, username);
+        houseOrderRepository.deleteAll(orders);
+        orders.stream()
+                .filter(order -> order.getStatus() == OrderStatus.RESERVED && order.getHouse() != null)
+                .map(order -> order.getHouse().getId())
+                .distinct()
+                .forEach(houseId -> eventPublisher.publishEvent(new HouseReservationChangedEvent(houseId)));
 
         userWalletRepository.findByUserAccount(account).ifPresent(wallet -> {
             walletTransactionRepository.deleteByWallet(wallet);
@@ -136,7 +150,9 @@ public class UserAdminController {
         });
 
         if (account.getRole().isSellerRole()) {
-            secondHandHouseRepository.deleteAll(secondHandHouseRepository.findBySellerUsername(username));
+            List<SecondHandHouse> sellerHouses = secondHandHouseRepository.findBySellerUsername(username);
+            secondHandHouseRepository.deleteAll(sellerHouses);
+            sellerHouses.forEach(house -> eventPublisher.publishEvent(HouseListingChangedEvent.removed(house.getId())));
         }
 
         userAccountRepository.delete(account);
@@ -0,0 +1,225 @@
+package com.example.demo.archive;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// 已归档房源，只读，由清理任务通过 INSERT ... SELECT 批量写入
+@Entity
+@Immutable
+@Table(name = "second_hand_houses_archive")
+public class ArchivedHouse {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String address;
+
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "down_payment", precision = 15, scale = 2)
+    private BigDecimal downPayment;
+
+    @Column(name = "installment_monthly_payment", precision = 15, scale = 2)
+    private BigDecimal installmentMonthlyPayment;
+
+    @Column(name = "installment_months")
+    private Integer installmentMonths;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal area;
+
+    @Column(name = "floor")
+    private Integer floor;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "seller_username", nullable = false, length = 50)
+    private String sellerUsername;
+
+    @Column(name = "seller_name", length = 100)
+    private String sellerName;
+
+    @Column(name = "contact_number", length = 50)
+    private String contactNumber;
+
+    @Column(name = "listing_fingerprint", length = 64)
+    private String listingFingerprint;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "listing_date", nullable = false)
+    private LocalDate listingDate;
+
+    @Column(name = "reviewed_by", length = 50)
+    private String reviewedBy;
+
+    @Column(name = "review_message", length = 255)
+    private String reviewMessage;
+
+    @Column(name = "reviewed_at")
+    private OffsetDateTime reviewedAt;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "second_hand_house_images_archive", joinColumns = @JoinColumn(name = "house_id"))
+    @OrderColumn(name = "image_order")
+    @Column(name = "image_url", length = 500)
+    @BatchSize(size = 100)
+    private List<String> imageUrls = new ArrayList<>();
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "second_hand_house_keywords_archive", joinColumns = @JoinColumn(name = "house_id"))
+    @Column(name = "keyword", length = 50)
+    @BatchSize(size = 100)
+    private List<String> keywords = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "archive_reason", nullable = false, length = 30)
+    private String archiveReason;
+
+    @Column(name = "archived_at", nullable = false)
+    private OffsetDateTime archivedAt;
+
+    protected ArchivedHouse() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public BigDecimal getDownPayment() {
+        return downPayment;
+    }
+
+    public BigDecimal getInstallmentMonthlyPayment() {
+        return installmentMonthlyPayment;
+    }
+
+    public Integer getInstallmentMonths() {
+        return installmentMonths;
+    }
+
+    public BigDecimal getArea() {
+        return area;
+    }
+
+    public Integer getFloor() {
+        return floor;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getSellerUsername() {
+        return sellerUsername;
+    }
+
+    public String getSellerName() {
+        return sellerName;
+    }
+
+    public String getContactNumber() {
+        return contactNumber;
+    }
+
+    public String getListingFingerprint() {
+        return listingFingerprint;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDate getListingDate() {
+        return listingDate;
+    }
+
+    public String getReviewedBy() {
+        return reviewedBy;
+    }
+
+    public String getReviewMessage() {
+        return reviewMessage;
+    }
+
+    public OffsetDateTime getReviewedAt() {
+        return reviewedAt;
+    }
+
+    public List<String> getImageUrls() {
+        return imageUrls;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String getArchiveReason() {
+        return archiveReason;
+    }
+
+    public OffsetDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
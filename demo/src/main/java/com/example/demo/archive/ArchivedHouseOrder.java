@@ -0,0 +1,216 @@
+package com.example.demo.archive;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// 随房源一起归档的已完结订单，买卖双方以用户名保存，不再依赖账号表
+@Entity
+@Immutable
+@Table(name = "house_orders_archive")
+public class ArchivedHouseOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "house_id", nullable = false)
+    private Long houseId;
+
+    @Column(name = "buyer_username", length = 50)
+    private String buyerUsername;
+
+    @Column(name = "seller_username", length = 50)
+    private String sellerUsername;
+
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private String paymentMethod;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "progress_stage", nullable = false, length = 30)
+    private String progressStage;
+
+    @Column(name = "admin_hold_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal adminHoldAmount;
+
+    @Column(name = "platform_fee", nullable = false, precision = 18, scale = 2)
+    private BigDecimal platformFee;
+
+    @Column(name = "released_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal releasedAmount;
+
+    @Column(name = "funds_released_to", length = 20)
+    private String fundsReleasedTo;
+
+    @Column(name = "admin_reviewed", nullable = false)
+    private boolean adminReviewed;
+
+    @Column(name = "admin_reviewed_by", length = 50)
+    private String adminReviewedBy;
+
+    @Column(name = "admin_reviewed_at")
+    private OffsetDateTime adminReviewedAt;
+
+    @Column(name = "return_reason", length = 255)
+    private String returnReason;
+
+    @Column(name = "viewing_time")
+    private OffsetDateTime viewingTime;
+
+    @Column(name = "viewing_message", length = 255)
+    private String viewingMessage;
+
+    @Column(name = "seller_repay_required", nullable = false)
+    private boolean sellerRepayRequired;
+
+    @Column(name = "seller_repay_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal sellerRepayAmount;
+
+    @Column(name = "seller_repay_reference", length = 50)
+    private String sellerRepayReference;
+
+    @Column(name = "seller_repay_description", length = 255)
+    private String sellerRepayDescription;
+
+    @Column(name = "seller_repay_settled_at")
+    private OffsetDateTime sellerRepaySettledAt;
+
+    @Column(name = "buyer_viewing_confirmed", nullable = false)
+    private boolean buyerViewingConfirmed;
+
+    @Column(name = "seller_viewing_confirmed", nullable = false)
+    private boolean sellerViewingConfirmed;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private OffsetDateTime archivedAt;
+
+    protected ArchivedHouseOrder() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getHouseId() {
+        return houseId;
+    }
+
+    public String getBuyerUsername() {
+        return buyerUsername;
+    }
+
+    public String getSellerUsername() {
+        return sellerUsername;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getProgressStage() {
+        return progressStage;
+    }
+
+    public BigDecimal getAdminHoldAmount() {
+        return adminHoldAmount;
+    }
+
+    public BigDecimal getPlatformFee() {
+        return platformFee;
+    }
+
+    public BigDecimal getReleasedAmount() {
+        return releasedAmount;
+    }
+
+    public String getFundsReleasedTo() {
+        return fundsReleasedTo;
+    }
+
+    public boolean isAdminReviewed() {
+        return adminReviewed;
+    }
+
+    public String getAdminReviewedBy() {
+        return adminReviewedBy;
+    }
+
+    public OffsetDateTime getAdminReviewedAt() {
+        return adminReviewedAt;
+    }
+
+    public String getReturnReason() {
+        return returnReason;
+    }
+
+    public OffsetDateTime getViewingTime() {
+        return viewingTime;
+    }
+
+    public String getViewingMessage() {
+        return viewingMessage;
+    }
+
+    public boolean isSellerRepayRequired() {
+        return sellerRepayRequired;
+    }
+
+    public BigDecimal getSellerRepayAmount() {
+        return sellerRepayAmount;
+    }
+
+    public String getSellerRepayReference() {
+        return sellerRepayReference;
+    }
+
+    public String getSellerRepayDescription() {
+        return sellerRepayDescription;
+    }
+
+    public OffsetDateTime getSellerRepaySettledAt() {
+        return sellerRepaySettledAt;
+    }
+
+    public boolean isBuyerViewingConfirmed() {
+        return buyerViewingConfirmed;
+    }
+
+    public boolean isSellerViewingConfirmed() {
+        return sellerViewingConfirmed;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public OffsetDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
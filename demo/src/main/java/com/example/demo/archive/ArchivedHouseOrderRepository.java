@@ -0,0 +1,37 @@
+package com.example.demo.archive;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedHouseOrderRepository extends JpaRepository<ArchivedHouseOrder, Long> {
+
+    List<ArchivedHouseOrder> findByHouseIdInOrderByCreatedAtAsc(Collection<Long> houseIds);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO house_orders_archive (id, house_id, buyer_username, seller_username, amount, payment_method,
+                                              status, progress_stage, admin_hold_amount, platform_fee, released_amount,
+                                              funds_released_to, admin_reviewed, admin_reviewed_by, admin_reviewed_at,
+                                              return_reason, viewing_time, viewing_message, seller_repay_required,
+                                              seller_repay_amount, seller_repay_reference, seller_repay_description,
+                                              seller_repay_settled_at, buyer_viewing_confirmed,
+                                              seller_viewing_confirmed, created_at, updated_at, archived_at)
+            SELECT o.id, o.house_id, b.username, s.username, o.amount, o.payment_method,
+                   o.status, o.progress_stage, o.admin_hold_amount, o.platform_fee, o.released_amount,
+                   o.funds_released_to, o.admin_reviewed, o.admin_reviewed_by, o.admin_reviewed_at,
+                   o.return_reason, o.viewing_time, o.viewing_message, o.seller_repay_required,
+                   o.seller_repay_amount, o.seller_repay_reference, o.seller_repay_description,
+                   o.seller_repay_settled_at, o.buyer_viewing_confirmed,
+                   o.seller_viewing_confirmed, o.created_at, o.updated_at, CURRENT_TIMESTAMP(6)
+            FROM house_orders o
+                     LEFT JOIN user_accounts b ON b.id = o.buyer_id
+                     LEFT JOIN user_accounts s ON s.id = o.seller_id
+            WHERE o.house_id IN (:houseIds)
+            """, nativeQuery = true)
+    int archiveOrdersOfHouses(@Param("houseIds") Collection<Long> houseIds);
+}
@@ -0,0 +1,33 @@
+package com.example.demo.archive;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+public record ArchivedHouseOrderView(
+        Long id,
+        String buyerUsername,
+        String sellerUsername,
+        BigDecimal amount,
+        String paymentMethod,
+        String status,
+        BigDecimal platformFee,
+        BigDecimal releasedAmount,
+        String fundsReleasedTo,
+        OffsetDateTime createdAt
+) {
+
+    public static ArchivedHouseOrderView fromEntity(ArchivedHouseOrder order) {
+        return new ArchivedHouseOrderView(
+                order.getId(),
+                order.getBuyerUsername(),
+                order.getSellerUsername(),
+                order.getAmount(),
+                order.getPaymentMethod(),
+                order.getStatus(),
+                order.getPlatformFee(),
+                order.getReleasedAmount(),
+                order.getFundsReleasedTo(),
+                order.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.archive;
+
+import java.util.List;
+
+public record ArchivedHousePage(
+        List<ArchivedHouseView> items,
+        Long nextBeforeId,
+        boolean hasMore
+) {
+}
@@ -0,0 +1,54 @@
+package com.example.demo.archive;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedHouseRepository extends JpaRepository<ArchivedHouse, Long> {
+
+    List<ArchivedHouse> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    List<ArchivedHouse> findBySellerUsernameIgnoreCaseAndIdLessThanOrderByIdDesc(String sellerUsername, Long id, Limit limit);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO second_hand_houses_archive (id, title, address, latitude, longitude, price, down_payment,
+                                                    installment_monthly_payment, installment_months, area, floor,
+                                                    description, seller_username, seller_name, contact_number,
+                                                    listing_fingerprint, status, listing_date, reviewed_by,
+                                                    review_message, reviewed_at, created_at, updated_at,
+                                                    archive_reason, archived_at)
+            SELECT h.id, h.title, h.address, h.latitude, h.longitude, h.price, h.down_payment,
+                   h.installment_monthly_payment, h.installment_months, h.area, h.floor,
+                   h.description, h.seller_username, h.seller_name, h.contact_number,
+                   h.listing_fingerprint, h.status, h.listing_date, h.reviewed_by,
+                   h.review_message, h.reviewed_at, h.created_at, h.updated_at,
+                   :reason, CURRENT_TIMESTAMP(6)
+            FROM second_hand_houses h
+            WHERE h.id IN (:ids)
+            """, nativeQuery = true)
+    int archiveHouses(@Param("ids") Collection<Long> ids, @Param("reason") String reason);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO second_hand_house_images_archive (house_id, image_order, image_url)
+            SELECT i.house_id, i.image_order, i.image_url
+            FROM second_hand_house_images i
+            WHERE i.house_id IN (:ids)
+            """, nativeQuery = true)
+    int archiveImages(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO second_hand_house_keywords_archive (house_id, keyword)
+            SELECT k.house_id, k.keyword
+            FROM second_hand_house_keywords k
+            WHERE k.house_id IN (:ids)
+            """, nativeQuery = true)
+    int archiveKeywords(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,47 @@
+package com.example.demo.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record ArchivedHouseView(
+        Long id,
+        String title,
+        String address,
+        Double latitude,
+        Double longitude,
+        BigDecimal price,
+        BigDecimal area,
+        Integer floor,
+        String sellerUsername,
+        String status,
+        LocalDate listingDate,
+        List<String> imageUrls,
+        List<String> keywords,
+        String archiveReason,
+        OffsetDateTime archivedAt,
+        List<ArchivedHouseOrderView> orders
+) {
+
+    public static ArchivedHouseView fromEntity(ArchivedHouse house, List<ArchivedHouseOrderView> orders) {
+        return new ArchivedHouseView(
+                house.getId(),
+                house.getTitle(),
+                house.getAddress(),
+                house.getLatitude(),
+                house.getLongitude(),
+                house.getPrice(),
+                house.getArea(),
+                house.getFloor(),
+                house.getSellerUsername(),
+                house.getStatus(),
+                house.getListingDate(),
+                List.copyOf(house.getImageUrls()),
+                List.copyOf(house.getKeywords()),
+                house.getArchiveReason(),
+                house.getArchivedAt(),
+                orders
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.archive;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/houses/archive")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class ListingArchiveController {
+
+    private final ListingArchiveService archiveService;
+
+    public ListingArchiveController(ListingArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    // 只读查询已归档房源及其历史订单，按归档房源 ID 倒序翻页
+    @GetMapping
+    public ArchivedHousePage list(@RequestParam("requester") String requesterUsername,
+                                  @RequestParam(value = "seller", required = false) String sellerUsername,
+                                  @RequestParam(value = "beforeId", required = false) Long beforeId,
+                                  @RequestParam(value = "size", required = false) Integer size) {
+        return archiveService.findArchivedHouses(requesterUsername, sellerUsername, beforeId, size);
+    }
+}
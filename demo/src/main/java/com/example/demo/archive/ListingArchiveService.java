@@ -0,0 +1,95 @@
+package com.example.demo.archive;
+
+import com.example.demo.auth.UserAccount;
+import com.example.demo.auth.UserAccountRepository;
+import com.example.demo.auth.UserRole;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// 房源归档：把已完结的房源连同图片、标签与订单整体搬到归档表，归档数据只读
+@Service
+public class ListingArchiveService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ArchivedHouseRepository archivedHouseRepository;
+    private final ArchivedHouseOrderRepository archivedHouseOrderRepository;
+    private final UserAccountRepository userAccountRepository;
+
+    public ListingArchiveService(ArchivedHouseRepository archivedHouseRepository,
+                                 ArchivedHouseOrderRepository archivedHouseOrderRepository,
+                                 UserAccountRepository userAccountRepository) {
+        this.archivedHouseRepository = archivedHouseRepository;
+        this.archivedHouseOrderRepository = archivedHouseOrderRepository;
+        this.userAccountRepository = userAccountRepository;
+    }
+
+    // 在调用方的分块事务内执行 INSERT ... SELECT，原表删除由调用方在同一事务中完成；返回归档的订单数
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int archive(Collection<Long> houseIds, String reason) {
+        if (houseIds.isEmpty()) {
+            return 0;
+        }
+        archivedHouseRepository.archiveHouses(houseIds, reason);
+        archivedHouseRepository.archiveImages(houseIds);
+        archivedHouseRepository.archiveKeywords(houseIds);
+        return archivedHouseOrderRepository.archiveOrdersOfHouses(houseIds);
+    }
+
+    // 按归档房源 ID 倒序键集分页：管理员可查看全部或指定卖家，卖家只能查看自己的归档房源
+    @Transactional(readOnly = true)
+    public ArchivedHousePage findArchivedHouses(String requesterUsername, String sellerUsername,
+                                                Long beforeId, Integer size) {
+        if (requesterUsername == null || requesterUsername.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请求人不能为空");
+        }
+        UserAccount requester = userAccountRepository.findByUsernameIgnoreCase(requesterUsername.trim())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "请求人账号不存在"));
+        if (requester.isBlacklisted()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "请求人已被加入黑名单");
+        }
+        String seller = sellerUsername == null || sellerUsername.isBlank() ? null : sellerUsername.trim();
+        if (requester.getRole() != UserRole.ADMIN) {
+            if (seller != null && !seller.equalsIgnoreCase(requester.getUsername())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "只能查看自己的归档房源");
+            }
+            seller = requester.getUsername();
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "每页数量需在 1 到 " + MAX_PAGE_SIZE + " 之间");
+        }
+        long cursor = beforeId == null ? Long.MAX_VALUE : beforeId;
+        Limit limit = Limit.of(pageSize + 1);
+        List<ArchivedHouse> houses = seller == null
+                ? archivedHouseRepository.findByIdLessThanOrderByIdDesc(cursor, limit)
+                : archivedHouseRepository.findBySellerUsernameIgnoreCaseAndIdLessThanOrderByIdDesc(seller, cursor, limit);
+        boolean hasMore = houses.size() > pageSize;
+        if (hasMore) {
+            houses = houses.subList(0, pageSize);
+        }
+        if (houses.isEmpty()) {
+            return new ArchivedHousePage(List.of(), null, false);
+        }
+        List<Long> ids = houses.stream().map(ArchivedHouse::getId).toList();
+        Map<Long, List<ArchivedHouseOrderView>> ordersByHouse = archivedHouseOrderRepository
+                .findByHouseIdInOrderByCreatedAtAsc(ids)
+                .stream()
+                .collect(Collectors.groupingBy(ArchivedHouseOrder::getHouseId,
+                        Collectors.mapping(ArchivedHouseOrderView::fromEntity, Collectors.toList())));
+        List<ArchivedHouseView> items = houses.stream()
+                .map(house -> ArchivedHouseView.fromEntity(house, ordersByHouse.getOrDefault(house.getId(), List.of())))
+                .toList();
+        return new ArchivedHousePage(items, hasMore ? ids.get(ids.size() - 1) : null, hasMore);
+    }
+}
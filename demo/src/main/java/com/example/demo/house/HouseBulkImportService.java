@@ -0,0 +1,428 @@
+package com.example.demo.house;
+
+import com.example.demo.auth.UserAccount;
+import com.example.demo.auth.UserAccountRepository;
+import com.example.demo.auth.UserRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 中介批量导入房源：卖家只校验一次，逐行解析与校验后按块处理，
+// 每块一次查询比对已有指纹，再用 JDBC 批量插入房源及其图片、标签，并返回逐行结果；
+// 超过单次上限的行不再处理，已提交的块保持有效，报告中标明未处理的行
+@Service
+public class HouseBulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(HouseBulkImportService.class);
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_IMPORT_ROWS = 10_000;
+    private static final String LIST_SEPARATOR = "\\|";
+    private static final String INSERT_HOUSE_SQL = """
+            INSERT INTO second_hand_houses (title, address, latitude, longitude, price, down_payment,
+                                            installment_monthly_payment, installment_months, area, description,
+                                            seller_username, seller_name, listing_fingerprint, contact_number,
+                                            listing_date, floor, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_IMAGE_SQL =
+            "INSERT INTO second_hand_house_images (house_id, image_order, image_url) VALUES (?, ?, ?)";
+    private static final String INSERT_KEYWORD_SQL =
+            "INSERT INTO second_hand_house_keywords (house_id, keyword) VALUES (?, ?)";
+
+    private final SecondHandHouseRepository repository;
+    private final UserAccountRepository userAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public HouseBulkImportService(SecondHandHouseRepository repository,
+                                  UserAccountRepository userAccountRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  Validator validator,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.userAccountRepository = userAccountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public HouseImportReport importListings(String sellerUsername, HouseImportFormat format, Reader body) {
+        String seller = requireImportSeller(sellerUsername);
+        long started = System.nanoTime();
+        List<HouseImportRowResult> results = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        Map<String, Integer> batchFingerprints = new HashMap<>();
+        int total = 0;
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(body)) {
+            RowSource source = format == HouseImportFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+            for (ParsedRow parsed = source.next(); parsed != null; parsed = source.next()) {
+                if (total == MAX_IMPORT_ROWS) {
+                    // 之前的块已经提交，不能再整体拒绝：只统计剩余行数，并在报告中标出未处理的行
+                    skipped = 1;
+                    while (source.next() != null) {
+                        skipped++;
+                    }
+                    results.add(new HouseImportRowResult(parsed.row(), HouseImportRowResult.Outcome.SKIPPED, null,
+                            "单次最多导入 " + MAX_IMPORT_ROWS + " 条房源，本行及之后共 " + skipped + " 条未处理"));
+                    total += skipped;
+                    break;
+                }
+                total++;
+                PendingRow pending = prepare(parsed, seller, batchFingerprints, results);
+                if (pending == null) {
+                    continue;
+                }
+                chunk.add(pending);
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertChunk(chunk, results);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "导入内容读取失败：" + ex.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, results);
+        }
+        results.sort(Comparator.comparingInt(HouseImportRowResult::row));
+        Map<HouseImportRowResult.Outcome, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(HouseImportRowResult::outcome, Collectors.counting()));
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        int imported = counts.getOrDefault(HouseImportRowResult.Outcome.IMPORTED, 0L).intValue();
+        log.info("卖家 {} 批量导入房源 {} 条，成功 {} 条，未处理 {} 条，耗时 {} 毫秒",
+                seller, total, imported, skipped, durationMillis);
+        return new HouseImportReport(seller, total, imported,
+                counts.getOrDefault(HouseImportRowResult.Outcome.DUPLICATE, 0L).intValue(),
+                counts.getOrDefault(HouseImportRowResult.Outcome.INVALID, 0L).intValue(),
+                counts.getOrDefault(HouseImportRowResult.Outcome.FAILED, 0L).intValue(),
+                skipped, durationMillis, results);
+    }
+
+    // 与单条发布相同的卖家校验，整批只执行一次
+    private String requireImportSeller(String sellerUsername) {
+        if (sellerUsername == null || sellerUsername.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "卖家账号不能为空");
+        }
+        UserAccount seller = userAccountRepository.findByUsernameIgnoreCase(sellerUsername.trim())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "卖家账号不存在"));
+        if (!seller.getRole().isSellerRole() && seller.getRole() != UserRole.ADMIN) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "指定账号不是合法的卖家角色");
+        }
+        if (seller.isBlacklisted()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "该卖家已被加入黑名单，无法发布房源");
+        }
+        return seller.getUsername();
+    }
+
+    private PendingRow prepare(ParsedRow parsed,
+                               String seller,
+                               Map<String, Integer> batchFingerprints,
+                               List<HouseImportRowResult> results) {
+        if (parsed.error() != null) {
+            results.add(invalid(parsed.row(), parsed.error()));
+            return null;
+        }
+        SecondHandHouseRequest request = parsed.request();
+        if (request.sellerUsername() != null && !request.sellerUsername().isBlank()
+                && !request.sellerUsername().trim().equalsIgnoreCase(seller)) {
+            results.add(invalid(parsed.row(), "卖家账号与导入账号不一致"));
+            return null;
+        }
+        // 卖家账号由导入参数统一指定，行内可以留空
+        String violations = validator.validate(request).stream()
+                .filter(violation -> !"sellerUsername".equals(violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("；"));
+        if (!violations.isEmpty()) {
+            results.add(invalid(parsed.row(), violations));
+            return null;
+        }
+        SecondHandHouse house = request.toEntity();
+        house.setSellerUsername(seller);
+        String fingerprint = house.getStatus() == ListingStatus.DRAFT
+                ? null
+                : ListingFingerprint.of(seller, house.getTitle(), house.getAddress());
+        if (fingerprint != null) {
+            Integer firstRow = batchFingerprints.putIfAbsent(fingerprint, parsed.row());
+            if (firstRow != null) {
+                results.add(new HouseImportRowResult(parsed.row(), HouseImportRowResult.Outcome.DUPLICATE, null,
+                        "与本批第 " + firstRow + " 行房源重复"));
+                return null;
+            }
+        }
+        return new PendingRow(parsed.row(), house, fingerprint);
+    }
+
+    private void insertChunk(List<PendingRow> chunk, List<HouseImportRowResult> results) {
+        try {
+            List<HouseImportRowResult> chunkResults = transactionTemplate.execute(status -> insertChunkInTransaction(chunk));
+            if (chunkResults != null) {
+                results.addAll(chunkResults);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("批量导入房源写入失败，本块 {} 条回滚：{}", chunk.size(), ex.getMessage());
+            chunk.forEach(row -> results.add(new HouseImportRowResult(row.row(), HouseImportRowResult.Outcome.FAILED,
+                    null, "写入数据库失败，请稍后重试")));
+        }
+    }
+
+    private List<HouseImportRowResult> insertChunkInTransaction(List<PendingRow> chunk) {
+        List<HouseImportRowResult> results = new ArrayList<>(chunk.size());
+        Set<String> fingerprints = chunk.stream()
+                .map(PendingRow::fingerprint)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> existing = fingerprints.isEmpty()
+                ? Set.of()
+                : new HashSet<>(repository.findExistingFingerprints(fingerprints, ListingStatus.REJECTED));
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (row.fingerprint() != null && existing.contains(row.fingerprint())) {
+                results.add(new HouseImportRowResult(row.row(), HouseImportRowResult.Outcome.DUPLICATE, null,
+                        "检测到重复房源信息，请勿重复上架。"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        Timestamp timestamp = Timestamp.from(now.toInstant());
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_HOUSE_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int index) throws SQLException {
+                        bindHouse(statement, accepted.get(index), timestamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return accepted.size();
+                    }
+                },
+                keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != accepted.size()) {
+            throw new IllegalStateException("批量插入返回的主键数量与房源数量不一致");
+        }
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> keywords = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            long id = ((Number) keys.get(i).values().iterator().next()).longValue();
+            SecondHandHouse house = accepted.get(i).house();
+            house.setId(id);
+            house.setCreatedAt(now);
+            house.setUpdatedAt(now);
+            List<String> imageUrls = house.getImageUrls();
+            for (int order = 0; order < imageUrls.size(); order++) {
+                images.add(new Object[]{id, order, imageUrls.get(order)});
+            }
+            house.getKeywords().forEach(keyword -> keywords.add(new Object[]{id, keyword}));
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE_SQL, images);
+        }
+        if (!keywords.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_KEYWORD_SQL, keywords);
+        }
+        for (PendingRow row : accepted) {
+            eventPublisher.publishEvent(HouseListingChangedEvent.of(HouseListingChangeType.CREATED, row.house()));
+            results.add(new HouseImportRowResult(row.row(), HouseImportRowResult.Outcome.IMPORTED,
+                    row.house().getId(), null));
+        }
+        return results;
+    }
+
+    private static void bindHouse(PreparedStatement statement, PendingRow row, Timestamp now) throws SQLException {
+        SecondHandHouse house = row.house();
+        statement.setString(1, house.getTitle());
+        statement.setString(2, house.getAddress());
+        setNullableDouble(statement, 3, house.getLatitude());
+        setNullableDouble(statement, 4, house.getLongitude());
+        statement.setBigDecimal(5, house.getPrice());
+        statement.setBigDecimal(6, house.getDownPayment());
+        statement.setBigDecimal(7, BigDecimal.ZERO);
+        statement.setInt(8, 0);
+        statement.setBigDecimal(9, house.getArea());
+        statement.setString(10, house.getDescription());
+        statement.setString(11, house.getSellerUsername());
+        statement.setString(12, house.getSellerName());
+        statement.setString(13, ListingFingerprint.of(house.getSellerUsername(), house.getTitle(), house.getAddress()));
+        statement.setString(14, house.getContactNumber());
+        statement.setDate(15, Date.valueOf(house.getListingDate()));
+        if (house.getFloor() == null) {
+            statement.setNull(16, Types.INTEGER);
+        } else {
+            statement.setInt(16, house.getFloor());
+        }
+        statement.setString(17, house.getStatus().name());
+        statement.setTimestamp(18, now);
+        statement.setTimestamp(19, now);
+    }
+
+    private static void setNullableDouble(PreparedStatement statement, int index, Double value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.DOUBLE);
+        } else {
+            statement.setDouble(index, value);
+        }
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        int[] lineNumber = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(lineNumber[0], objectMapper.readValue(line, SecondHandHouseRequest.class), null);
+                } catch (JsonProcessingException ex) {
+                    return new ParsedRow(lineNumber[0], null, "JSON 格式错误：" + ex.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    // CSV 首行为表头，列名与 SecondHandHouseRequest 字段一致（不区分大小写），keywords 与 imageUrls 用 | 分隔
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        HouseCsvReader csv = new HouseCsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] rowNumber = {0};
+        return () -> {
+            List<String> record = csv.next();
+            if (record == null) {
+                return null;
+            }
+            rowNumber[0]++;
+            CsvRecord row = new CsvRecord(columns, record);
+            try {
+                return new ParsedRow(rowNumber[0], new SecondHandHouseRequest(
+                        row.text("title"),
+                        row.text("address"),
+                        row.parse("latitude", Double::valueOf),
+                        row.parse("longitude", Double::valueOf),
+                        row.parse("price", BigDecimal::new),
+                        row.parse("downPayment", BigDecimal::new),
+                        row.parse("area", BigDecimal::new),
+                        row.text("description"),
+                        row.text("sellerUsername"),
+                        row.text("sellerName"),
+                        row.text("contactNumber"),
+                        row.parse("listingDate", LocalDate::parse),
+                        row.parse("floor", Integer::valueOf),
+                        row.list("keywords"),
+                        row.list("imageUrls"),
+                        row.parse("saveAsDraft", Boolean::valueOf)
+                ), null);
+            } catch (IllegalArgumentException ex) {
+                return new ParsedRow(rowNumber[0], null, ex.getMessage());
+            }
+        };
+    }
+
+    private static HouseImportRowResult invalid(int row, String message) {
+        return new HouseImportRowResult(row, HouseImportRowResult.Outcome.INVALID, null, message);
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ParsedRow next() throws IOException;
+    }
+
+    private record ParsedRow(int row, SecondHandHouseRequest request, String error) {
+    }
+
+    private record PendingRow(int row, SecondHandHouse house, String fingerprint) {
+    }
+
+    private record CsvRecord(Map<String, Integer> columns, List<String> values) {
+
+        private String text(String column) {
+            Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private <T> T parse(String column, Function<String, T> parser) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value);
+            } catch (NumberFormatException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("字段 " + column + " 格式错误：" + value);
+            }
+        }
+
+        private List<String> list(String column) {
+            String value = text(column);
+            return value == null ? List.of() : Arrays.asList(value.split(LIST_SEPARATOR));
+        }
+    }
+}
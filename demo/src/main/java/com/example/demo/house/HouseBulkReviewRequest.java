@@ -0,0 +1,17 @@
+package com.example.demo.house;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record HouseBulkReviewRequest(
+        @NotBlank(message = "请提供审核人账号") String reviewerUsername,
+        @NotNull(message = "请选择审核状态") ListingStatus status,
+        @Size(max = 255, message = "审核备注不能超过255个字符") String message,
+        @NotEmpty(message = "请选择需要审核的房源")
+        @Size(max = 500, message = "单次最多审核500条房源") List<@NotNull Long> ids
+) {
+}
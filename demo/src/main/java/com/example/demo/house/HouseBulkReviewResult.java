@@ -0,0 +1,14 @@
+package com.example.demo.house;
+
+import java.util.List;
+import java.util.Map;
+
+// 批量审核结果：skippedIds 为不存在或已不在待审核状态的房源，duplicateSuspects 仅在审核通过时填充
+public record HouseBulkReviewResult(
+        ListingStatus status,
+        int requested,
+        int updated,
+        List<Long> skippedIds,
+        Map<Long, List<Long>> duplicateSuspects
+) {
+}
@@ -0,0 +1,300 @@
+package com.example.demo.house;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 房源变更的 SSE 推送：事务提交后把房源事件转换为公开可见性变化，追加到最近 1024 条的环形缓冲并分发给订阅者。
+// 每个订阅者有独立的有界队列，队满时丢弃最旧的事件并在下一次发送前提示客户端重新拉取；
+// 实际写出由后台线程完成，发布事件的业务线程不会被慢客户端阻塞
+@Component
+public class HouseChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(HouseChangeStream.class);
+    static final int REPLAY_CAPACITY = 1024;
+    static final int SUBSCRIBER_BUFFER = 256;
+    private static final int MAX_SUBSCRIBERS = 1000;
+    private static final int DISPATCH_THREADS = 2;
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final HouseStreamEvent[] replay = new HouseStreamEvent[REPLAY_CAPACITY];
+    // 以启动时刻的毫秒数作为起点，重启后客户端携带的旧事件 ID 会落在缓冲区之外而触发重新拉取
+    private final long firstSequence = System.currentTimeMillis();
+    private long lastSequence = firstSequence - 1;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher = Executors.newFixedThreadPool(DISPATCH_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "house-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 建立订阅；携带 Last-Event-ID 时先补发缓冲区中其后的事件，已超出缓冲范围则通知客户端重新拉取
+    public SseEmitter subscribe(String lastEventId) {
+        Long resumeAfter = parseEventId(lastEventId);
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        synchronized (replay) {
+            if (subscribers.size() >= MAX_SUBSCRIBERS) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "实时推送连接数已满，请稍后重试");
+            }
+            if (resumeAfter != null) {
+                List<HouseStreamEvent> missed = eventsAfterLocked(resumeAfter);
+                if (missed == null || missed.size() > SUBSCRIBER_BUFFER) {
+                    subscriber.requestReset();
+                } else {
+                    missed.forEach(subscriber::enqueue);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        // 立即写出一次心跳，让响应头尽快送达客户端
+        subscriber.heartbeat();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        HouseStreamEventType type = streamTypeOf(event);
+        if (type == null) {
+            return;
+        }
+        HouseListingSnapshot snapshot = type == HouseStreamEventType.REMOVED ? null : event.snapshot();
+        publish(type, event.houseId(), snapshot);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(HouseReservationChangedEvent event) {
+        if (event.houseId() != null) {
+            publish(HouseStreamEventType.RESERVATION_CHANGED, event.houseId(), null);
+        }
+    }
+
+    // 定期心跳，既防止代理断开空闲连接，也借写出失败及时清理已断开的客户端
+    @Scheduled(fixedDelayString = "${app.house-stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // 按公开可见性翻译内部事件：新建待审核的房源不推送，离开公开状态的房源一律视为下架
+    static HouseStreamEventType streamTypeOf(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return null;
+        }
+        if (event.isRemoval()) {
+            return HouseStreamEventType.REMOVED;
+        }
+        ListingStatus status = event.snapshot().status();
+        if (event.type() == HouseListingChangeType.SOLD || status == ListingStatus.SOLD) {
+            return HouseStreamEventType.SOLD;
+        }
+        if (status != ListingStatus.APPROVED) {
+            return event.type() == HouseListingChangeType.CREATED ? null : HouseStreamEventType.REMOVED;
+        }
+        return event.type() == HouseListingChangeType.UPDATED
+                ? HouseStreamEventType.UPDATED
+                : HouseStreamEventType.APPROVED;
+    }
+
+    long lastEventId() {
+        synchronized (replay) {
+            return lastSequence;
+        }
+    }
+
+    // 返回 afterId 之后的事件；afterId 已被覆盖或不属于本次运行时返回 null
+    List<HouseStreamEvent> eventsAfter(long afterId) {
+        synchronized (replay) {
+            return eventsAfterLocked(afterId);
+        }
+    }
+
+    private List<HouseStreamEvent> eventsAfterLocked(long afterId) {
+        long oldest = Math.max(firstSequence, lastSequence - REPLAY_CAPACITY + 1);
+        if (afterId < oldest - 1 || afterId > lastSequence) {
+            return null;
+        }
+        List<HouseStreamEvent> events = new ArrayList<>((int) (lastSequence - afterId));
+        for (long sequence = afterId + 1; sequence <= lastSequence; sequence++) {
+            events.add(replay[slotOf(sequence)]);
+        }
+        return events;
+    }
+
+    private void publish(HouseStreamEventType type, Long houseId, HouseListingSnapshot snapshot) {
+        synchronized (replay) {
+            HouseStreamEvent event = new HouseStreamEvent(++lastSequence, type, houseId,
+                    snapshot == null ? null : snapshot.status(),
+                    snapshot == null ? null : snapshot.title(),
+                    snapshot == null ? null : snapshot.price(),
+                    snapshot == null ? null : snapshot.area(),
+                    OffsetDateTime.now());
+            replay[slotOf(event.id())] = event;
+            subscribers.forEach(subscriber -> subscriber.enqueue(event));
+        }
+    }
+
+    private static int slotOf(long sequence) {
+        return (int) Math.floorMod(sequence, (long) REPLAY_CAPACITY);
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Last-Event-ID 无效");
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<HouseStreamEvent> queue = new ArrayDeque<>();
+        private int dropped;
+        private boolean resetDue;
+        private boolean heartbeatDue;
+        private boolean scheduled;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(HouseStreamEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() == SUBSCRIBER_BUFFER) {
+                    queue.pollFirst();
+                    dropped++;
+                }
+                queue.addLast(event);
+            }
+            schedule();
+        }
+
+        void requestReset() {
+            synchronized (this) {
+                resetDue = true;
+            }
+            schedule();
+        }
+
+        // 队列中已有待发送事件时无需额外心跳
+        void heartbeat() {
+            synchronized (this) {
+                if (closed || !queue.isEmpty()) {
+                    return;
+                }
+                heartbeatDue = true;
+            }
+            schedule();
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            subscribers.remove(this);
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled || closed) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RuntimeException ex) {
+                close();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                HouseStreamEvent next;
+                int lost;
+                boolean reset;
+                boolean ping;
+                synchronized (this) {
+                    next = queue.pollFirst();
+                    lost = dropped;
+                    reset = resetDue;
+                    ping = heartbeatDue;
+                    dropped = 0;
+                    resetDue = false;
+                    heartbeatDue = false;
+                    if (closed || (next == null && lost == 0 && !reset && !ping)) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    if (reset) {
+                        emitter.send(SseEmitter.event().name("reset")
+                                .data(Map.of("reason", "变更记录已过期，请重新拉取房源列表"), MediaType.APPLICATION_JSON));
+                    }
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("overflow")
+                                .data(Map.of("dropped", lost), MediaType.APPLICATION_JSON));
+                    }
+                    if (ping) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                    if (next != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(next.id()))
+                                .name(next.type().name())
+                                .data(next, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    log.debug("房源变更推送连接已断开: {}", ex.getMessage());
+                    close();
+                    synchronized (this) {
+                        scheduled = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
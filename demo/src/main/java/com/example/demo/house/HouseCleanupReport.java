@@ -0,0 +1,15 @@
+package com.example.demo.house;
+
+import java.time.OffsetDateTime;
+
+public record HouseCleanupReport(
+        String job,
+        boolean dryRun,
+        long scanned,
+        long archived,
+        long archivedOrders,
+        int chunks,
+        long durationMillis,
+        OffsetDateTime startedAt
+) {
+}
@@ -0,0 +1,228 @@
+package com.example.demo.house;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 地图聚合的分层网格：每个缩放级别把经纬度等分为 2^zoom * 4 份，下一级单元格恰好嵌套在上一级之内，
+// 单元格维护数量、坐标和以及有序价格数组，查询时直接返回视口内的聚合结果
+@Component
+public class HouseClusterIndex {
+
+    static final int MIN_ZOOM = 3;
+    static final int MAX_ZOOM = 18;
+    private static final int CELLS_PER_TILE = 4;
+
+    private final List<Map<Long, ClusterCell>> levels = new ArrayList<>();
+    private final Map<Long, ClusterMember> members = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public HouseClusterIndex() {
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<HouseClusterView> clusters(double south, double west, double north, double east, int zoom) {
+        int level = clampZoom(zoom);
+        lock.readLock().lock();
+        try {
+            return collect(levels.get(level - MIN_ZOOM), level, south, west, north, east);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 索引未就绪时按单一级别临时聚合
+    static List<HouseClusterView> aggregate(List<HouseLocationView> locations,
+                                            double south, double west, double north, double east, int zoom) {
+        int level = clampZoom(zoom);
+        Map<Long, ClusterCell> cells = new HashMap<>();
+        for (HouseLocationView location : locations) {
+            ClusterMember member = ClusterMember.of(location.latitude(), location.longitude(), location.price());
+            cells.computeIfAbsent(member.cellKey(level), ignored -> new ClusterCell()).add(member);
+        }
+        return collect(cells, level, south, west, north, east);
+    }
+
+    @EventListener
+    public void onListingsReloaded(HouseListingsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            levels.forEach(Map::clear);
+            members.clear();
+            event.listings().forEach(this::indexLocked);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.houseId());
+            if (!event.isRemoval()) {
+                indexLocked(event.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexLocked(HouseListingSnapshot snapshot) {
+        if (snapshot.id() == null || snapshot.status() != ListingStatus.APPROVED
+                || snapshot.latitude() == null || snapshot.longitude() == null) {
+            return;
+        }
+        ClusterMember member = ClusterMember.of(snapshot.latitude(), snapshot.longitude(), snapshot.price());
+        members.put(snapshot.id(), member);
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            levels.get(zoom - MIN_ZOOM).computeIfAbsent(member.cellKey(zoom), ignored -> new ClusterCell()).add(member);
+        }
+    }
+
+    private void removeLocked(Long houseId) {
+        ClusterMember member = members.remove(houseId);
+        if (member == null) {
+            return;
+        }
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            Map<Long, ClusterCell> cells = levels.get(zoom - MIN_ZOOM);
+            long key = member.cellKey(zoom);
+            ClusterCell cell = cells.get(key);
+            if (cell != null && cell.remove(member)) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static List<HouseClusterView> collect(Map<Long, ClusterCell> cells, int zoom,
+                                                  double south, double west, double north, double east) {
+        long minRow = cellIndex(Math.max(-90, south), zoom);
+        long maxRow = cellIndex(Math.min(90, north), zoom);
+        long minColumn = cellIndex(Math.max(-180, west), zoom);
+        long maxColumn = cellIndex(Math.min(180, east), zoom);
+        List<HouseClusterView> clusters = new ArrayList<>();
+        if (minRow > maxRow || minColumn > maxColumn) {
+            return clusters;
+        }
+        long span = (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (span > cells.size()) {
+            for (Map.Entry<Long, ClusterCell> entry : cells.entrySet()) {
+                long row = entry.getKey() >> 32;
+                long column = (int) entry.getKey().longValue();
+                if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+                    clusters.add(entry.getValue().toView());
+                }
+            }
+            return clusters;
+        }
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long column = minColumn; column <= maxColumn; column++) {
+                ClusterCell cell = cells.get(HouseGeoIndex.cellKey(row, column));
+                if (cell != null) {
+                    clusters.add(cell.toView());
+                }
+            }
+        }
+        return clusters;
+    }
+
+    static int clampZoom(int zoom) {
+        return Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+    }
+
+    private static long cellIndex(double degrees, int zoom) {
+        double cellDegrees = 360.0 / ((1L << zoom) * CELLS_PER_TILE);
+        return (long) Math.floor((degrees + 180) / cellDegrees);
+    }
+
+    private record ClusterMember(double latitude, double longitude, long priceCents) {
+
+        private static final long NO_PRICE = Long.MIN_VALUE;
+
+        static ClusterMember of(double latitude, double longitude, BigDecimal price) {
+            long cents = price == null ? NO_PRICE
+                    : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+            return new ClusterMember(latitude, longitude, cents);
+        }
+
+        long cellKey(int zoom) {
+            return HouseGeoIndex.cellKey(cellIndex(latitude, zoom), cellIndex(longitude, zoom));
+        }
+    }
+
+    private static final class ClusterCell {
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private long[] prices = new long[2];
+        private int priceCount;
+
+        private void add(ClusterMember member) {
+            count++;
+            latitudeSum += member.latitude();
+            longitudeSum += member.longitude();
+            if (member.priceCents() == ClusterMember.NO_PRICE) {
+                return;
+            }
+            int position = Arrays.binarySearch(prices, 0, priceCount, member.priceCents());
+            int insertAt = position >= 0 ? position : -position - 1;
+            if (priceCount == prices.length) {
+                prices = Arrays.copyOf(prices, prices.length * 2);
+            }
+            System.arraycopy(prices, insertAt, prices, insertAt + 1, priceCount - insertAt);
+            prices[insertAt] = member.priceCents();
+            priceCount++;
+        }
+
+        // 返回 true 表示单元格已空，可从级别中移除
+        private boolean remove(ClusterMember member) {
+            count--;
+            latitudeSum -= member.latitude();
+            longitudeSum -= member.longitude();
+            if (member.priceCents() != ClusterMember.NO_PRICE) {
+                int position = Arrays.binarySearch(prices, 0, priceCount, member.priceCents());
+                if (position >= 0) {
+                    System.arraycopy(prices, position + 1, prices, position, priceCount - position - 1);
+                    priceCount--;
+                }
+            }
+            return count <= 0;
+        }
+
+        private HouseClusterView toView() {
+            BigDecimal minPrice = null;
+            BigDecimal medianPrice = null;
+            if (priceCount > 0) {
+                minPrice = BigDecimal.valueOf(prices[0], 2);
+                int middle = priceCount / 2;
+                medianPrice = priceCount % 2 == 1
+                        ? BigDecimal.valueOf(prices[middle], 2)
+                        : BigDecimal.valueOf(prices[middle - 1] + prices[middle], 2)
+                        .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+            }
+            return new HouseClusterView(latitudeSum / count, longitudeSum / count, count, minPrice, medianPrice);
+        }
+    }
+}
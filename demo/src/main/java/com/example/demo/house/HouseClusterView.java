@@ -0,0 +1,12 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+
+public record HouseClusterView(
+        double latitude,
+        double longitude,
+        int count,
+        BigDecimal minPrice,
+        BigDecimal medianPrice
+) {
+}
@@ -0,0 +1,99 @@
+package com.example.demo.house;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// 按 RFC 4180 逐条读取 CSV 记录：支持双引号包裹、"" 转义以及引号内换行，首个字符为 BOM 时跳过
+final class HouseCsvReader {
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private int pushedBack = NONE;
+    private boolean started;
+
+    HouseCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // 返回下一条记录的各字段，读到末尾时返回 null；空行被跳过
+    List<String> next() throws IOException {
+        while (true) {
+            int ch = read();
+            if (ch == -1) {
+                return null;
+            }
+            if (ch == '\r' || ch == '\n') {
+                continue;
+            }
+            unread(ch);
+            return readRecord();
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int ch = read();
+            if (quoted) {
+                if (ch == -1) {
+                    throw new IOException("CSV 引号未闭合");
+                }
+                if (ch == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+                continue;
+            }
+            if (ch == -1 || ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) ch);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int ch = pushedBack;
+            pushedBack = NONE;
+            return ch;
+        }
+        int ch = reader.read();
+        if (!started) {
+            started = true;
+            if (ch == '\uFEFF') {
+                ch = reader.read();
+            }
+        }
+        return ch;
+    }
+
+    private void unread(int ch) {
+        pushedBack = ch;
+    }
+}
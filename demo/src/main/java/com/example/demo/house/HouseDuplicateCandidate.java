@@ -0,0 +1,11 @@
+package com.example.demo.house;
+
+public record HouseDuplicateCandidate(
+        Long id,
+        String title,
+        String address,
+        String sellerUsername,
+        ListingStatus status,
+        int distance
+) {
+}
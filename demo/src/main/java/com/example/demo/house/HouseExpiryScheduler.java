@@ -0,0 +1,247 @@
+package com.example.demo.house;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+// 房源到期队列：每套已上架或已售出的房源按到期时间进入 DelayQueue，由后台线程到点批量归档。
+// 到期时间完全由数据库中的挂牌日期与更新时间推导，启动时随内存索引一起重建，无需额外持久化
+@Component
+public class HouseExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(HouseExpiryScheduler.class);
+    private static final long SPREAD_WINDOW_MILLIS = Duration.ofHours(1).toMillis();
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(5);
+    private static final Duration DEFER_DELAY = Duration.ofDays(1);
+
+    private final HouseListingCleanupService cleanupService;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final DelayQueue<ExpiryTask> queue = new DelayQueue<>();
+    // 每套房源当前有效的任务；替换或取消时同时从队列中移除旧任务，出队时仍与此处比对以防与重试排期交错
+    private final Map<Long, ExpiryTask> scheduled = new ConcurrentHashMap<>();
+    private final Object reloadMonitor = new Object();
+    private volatile Thread worker;
+
+    public HouseExpiryScheduler(HouseListingCleanupService cleanupService) {
+        this.cleanupService = cleanupService;
+    }
+
+    public int pendingCount() {
+        return scheduled.size();
+    }
+
+    int queuedCount() {
+        return queue.size();
+    }
+
+    @EventListener
+    public void onListingsReloaded(HouseListingsReloadedEvent event) {
+        synchronized (reloadMonitor) {
+            queue.clear();
+            scheduled.clear();
+            event.listings().forEach(this::schedule);
+            if (worker == null) {
+                Thread thread = new Thread(this::drainLoop, "house-expiry");
+                thread.setDaemon(true);
+                worker = thread;
+                thread.start();
+            }
+        }
+        log.info("房源到期队列已重建，共 {} 个待到期任务", scheduled.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return;
+        }
+        synchronized (reloadMonitor) {
+            if (event.isRemoval()) {
+                cancel(event.houseId());
+            } else {
+                schedule(event.snapshot());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void schedule(HouseListingSnapshot snapshot) {
+        if (snapshot.id() == null) {
+            return;
+        }
+        Instant dueAt = dueAt(snapshot, zone);
+        if (dueAt == null) {
+            cancel(snapshot.id());
+            return;
+        }
+        enqueue(new ExpiryTask(snapshot.id(), snapshot.status(), dueAt.toEpochMilli()));
+    }
+
+    private void enqueue(ExpiryTask task) {
+        ExpiryTask previous = scheduled.put(task.houseId(), task);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.put(task);
+    }
+
+    private void cancel(Long houseId) {
+        ExpiryTask previous = scheduled.remove(houseId);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
+
+    private void drainLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<ExpiryTask> due = new ArrayList<>();
+                due.add(queue.take());
+                queue.drainTo(due, HouseListingCleanupService.CHUNK_SIZE - 1);
+                process(due);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void process(List<ExpiryTask> due) {
+        List<Long> stale = new ArrayList<>();
+        List<Long> sold = new ArrayList<>();
+        List<ExpiryTask> current = new ArrayList<>(due.size());
+        for (ExpiryTask task : due) {
+            if (!scheduled.remove(task.houseId(), task)) {
+                continue;
+            }
+            current.add(task);
+            (task.status() == ListingStatus.SOLD ? sold : stale).add(task.houseId());
+        }
+        List<Long> deferred = new ArrayList<>();
+        try {
+            if (!stale.isEmpty()) {
+                deferred.addAll(cleanupService.archiveExpiredStaleListings(stale));
+            }
+            if (!sold.isEmpty()) {
+                List<Long> soldDeferred = cleanupService.archiveExpiredSoldListings(sold);
+                deferred.addAll(soldDeferred);
+                rescheduleNotYetDue(current, sold, soldDeferred);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("房源到期归档失败，{} 分钟后重试：{}", RETRY_DELAY.toMinutes(), ex.getMessage());
+            reschedule(current, current.stream().map(ExpiryTask::houseId).toList(), RETRY_DELAY);
+            return;
+        }
+        // 仍有进行中订单的房源暂不归档，次日再检查；订单完结后房源状态变化也会重新排期
+        reschedule(current, deferred, DEFER_DELAY);
+    }
+
+    private void reschedule(List<ExpiryTask> tasks, List<Long> houseIds, Duration delay) {
+        if (houseIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(houseIds);
+        long dueAt = System.currentTimeMillis() + delay.toMillis();
+        for (ExpiryTask task : tasks) {
+            if (ids.contains(task.houseId())) {
+                requeue(task.withDueAt(dueAt));
+            }
+        }
+    }
+
+    // 数据库复核时尚未到期（排期所用快照的更新时间早于实际写入）的已售房源，按数据库中的更新时间重新排期；
+    // 已归档的房源不再返回，按库中时间仍已到期的（如演练模式）也不再排期，避免反复触发
+    private void rescheduleNotYetDue(List<ExpiryTask> tasks, List<Long> soldIds, List<Long> deferred) {
+        Set<Long> remaining = new HashSet<>(soldIds);
+        deferred.forEach(remaining::remove);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        Map<Long, OffsetDateTime> updatedAt = cleanupService.soldUpdatedAt(List.copyOf(remaining));
+        long now = System.currentTimeMillis();
+        for (ExpiryTask task : tasks) {
+            OffsetDateTime actual = updatedAt.get(task.houseId());
+            if (actual == null) {
+                continue;
+            }
+            long dueAt = soldDueAt(actual).toEpochMilli();
+            if (dueAt > now) {
+                requeue(task.withDueAt(dueAt));
+            }
+        }
+    }
+
+    // 出队后房源若已有新的排期（处理期间状态又变化），保留新的排期
+    private void requeue(ExpiryTask task) {
+        if (scheduled.putIfAbsent(task.houseId(), task) == null) {
+            queue.put(task);
+        }
+    }
+
+    // 已上架房源在挂牌满一个月后的次日零点到期，已售出房源在最后更新七天后到期；
+    // 同一天到期的房源按 ID 散列分布在零点后的一小时内，避免集中在同一时刻归档，又不会比期限晚太多
+    static Instant dueAt(HouseListingSnapshot snapshot, ZoneId zone) {
+        if (snapshot.status() == ListingStatus.APPROVED && snapshot.listingDate() != null) {
+            LocalDate dueDate = snapshot.listingDate().plus(HouseListingCleanupService.STALE_AFTER).plusDays(1);
+            return dueDate.atStartOfDay(zone).toInstant().plusMillis(spreadOffsetMillis(snapshot.id()));
+        }
+        if (snapshot.status() == ListingStatus.SOLD && snapshot.updatedAt() != null) {
+            return soldDueAt(snapshot.updatedAt());
+        }
+        return null;
+    }
+
+    private static Instant soldDueAt(OffsetDateTime updatedAt) {
+        return updatedAt.toInstant().plus(HouseListingCleanupService.SOLD_RETENTION).plusSeconds(1);
+    }
+
+    static long spreadOffsetMillis(long houseId) {
+        long mixed = houseId * 0x9E3779B97F4A7C15L;
+        mixed ^= mixed >>> 32;
+        return Math.floorMod(mixed, SPREAD_WINDOW_MILLIS);
+    }
+
+    private record ExpiryTask(Long houseId, ListingStatus status, long dueAtMillis) implements Delayed {
+
+        private ExpiryTask withDueAt(long dueAt) {
+            return new ExpiryTask(houseId, status, dueAt);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof ExpiryTask task) {
+                return Long.compare(dueAtMillis, task.dueAtMillis);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
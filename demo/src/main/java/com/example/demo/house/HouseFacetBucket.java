@@ -0,0 +1,11 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+
+public record HouseFacetBucket(
+        String key,
+        BigDecimal from,
+        BigDecimal to,
+        long count
+) {
+}
@@ -0,0 +1,86 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 单次遍历命中集合，同时累计价格、面积（平方米）、楼层与标签的分桶数量；
+// 价格与库中一致按元计，分桶边界为 100/200/300/500/800 万元，前端可直接回填为价格筛选条件
+final class HouseFacetCounter {
+
+    private static final BigDecimal[] PRICE_BOUNDS = decimals(1_000_000, 2_000_000, 3_000_000, 5_000_000, 8_000_000);
+    private static final BigDecimal[] AREA_BOUNDS = decimals(50, 70, 90, 120, 150);
+    private static final BigDecimal[] FLOOR_BOUNDS = decimals(4, 7, 13, 21);
+    private static final int MAX_TAG_BUCKETS = 20;
+
+    private final long[] priceCounts = new long[PRICE_BOUNDS.length + 1];
+    private final long[] areaCounts = new long[AREA_BOUNDS.length + 1];
+    private final long[] floorCounts = new long[FLOOR_BOUNDS.length + 1];
+    private final Map<String, long[]> tagCounts = new HashMap<>();
+
+    void accept(SecondHandHouse house) {
+        accept(house.getPrice(), house.getArea(), house.getFloor(), house.getKeywords());
+    }
+
+    void accept(HouseListingSnapshot snapshot) {
+        accept(snapshot.price(), snapshot.area(), snapshot.floor(), snapshot.keywords());
+    }
+
+    private void accept(BigDecimal price, BigDecimal area, Integer floor, List<String> keywords) {
+        increment(priceCounts, PRICE_BOUNDS, price);
+        increment(areaCounts, AREA_BOUNDS, area);
+        if (floor != null) {
+            increment(floorCounts, FLOOR_BOUNDS, BigDecimal.valueOf(floor));
+        }
+        if (keywords != null) {
+            for (String keyword : keywords) {
+                if (keyword != null && !keyword.isBlank()) {
+                    tagCounts.computeIfAbsent(keyword, ignored -> new long[1])[0]++;
+                }
+            }
+        }
+    }
+
+    HouseSearchFacets toFacets() {
+        List<HouseFacetBucket> tags = new ArrayList<>();
+        tagCounts.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<String, long[]>>comparingLong(entry -> entry.getValue()[0]).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(MAX_TAG_BUCKETS)
+                .forEach(entry -> tags.add(new HouseFacetBucket(entry.getKey(), null, null, entry.getValue()[0])));
+        return new HouseSearchFacets(
+                buckets(priceCounts, PRICE_BOUNDS),
+                buckets(areaCounts, AREA_BOUNDS),
+                buckets(floorCounts, FLOOR_BOUNDS),
+                tags
+        );
+    }
+
+    // 区间左闭右开：值等于某个边界时落入以该边界为下限的桶
+    private static void increment(long[] counts, BigDecimal[] bounds, BigDecimal value) {
+        if (value == null) {
+            return;
+        }
+        int position = Arrays.binarySearch(bounds, value, BigDecimal::compareTo);
+        counts[position >= 0 ? position + 1 : -position - 1]++;
+    }
+
+    private static List<HouseFacetBucket> buckets(long[] counts, BigDecimal[] bounds) {
+        List<HouseFacetBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            BigDecimal from = i == 0 ? null : bounds[i - 1];
+            BigDecimal to = i == bounds.length ? null : bounds[i];
+            String key = (from == null ? "*" : from.toPlainString()) + "-" + (to == null ? "*" : to.toPlainString());
+            buckets.add(new HouseFacetBucket(key, from, to, counts[i]));
+        }
+        return buckets;
+    }
+
+    private static BigDecimal[] decimals(int... values) {
+        return Arrays.stream(values).mapToObj(BigDecimal::valueOf).toArray(BigDecimal[]::new);
+    }
+}
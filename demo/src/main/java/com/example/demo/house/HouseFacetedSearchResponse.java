@@ -0,0 +1,10 @@
+package com.example.demo.house;
+
+import java.util.List;
+
+public record HouseFacetedSearchResponse(
+        List<SecondHandHouseView> items,
+        long total,
+        HouseSearchFacets facets
+) {
+}
@@ -0,0 +1,183 @@
+package com.example.demo.house;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 已上架房源坐标的网格索引：按 0.01 度（约 1 公里）划分单元格，查询只扫描与范围相交的单元格
+@Component
+public class HouseGeoIndex {
+
+    static final double CELL_DEGREES = 0.01;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private final Map<Long, List<HouseLocationView>> cells = new HashMap<>();
+    private final Map<Long, Long> cellOfHouse = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 半径检索：先用外接矩形圈定单元格，再按球面距离精确过滤，结果按距离由近到远排列
+    public List<HouseLocationView> nearby(double latitude, double longitude, double radiusKm, int limit) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double cosLatitude = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        double longitudeDelta = Math.min(180, radiusKm / (KM_PER_DEGREE_LATITUDE * cosLatitude));
+        List<HouseLocationView> candidates = collect(latitude - latitudeDelta, longitude - longitudeDelta,
+                latitude + latitudeDelta, longitude + longitudeDelta);
+        List<HouseLocationView> matched = new ArrayList<>();
+        List<Double> distances = new ArrayList<>();
+        for (HouseLocationView view : candidates) {
+            double distance = distanceKm(latitude, longitude, view.latitude(), view.longitude());
+            if (distance <= radiusKm) {
+                matched.add(view);
+                distances.add(distance);
+            }
+        }
+        Integer[] order = new Integer[matched.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(distances::get));
+        List<HouseLocationView> result = new ArrayList<>(Math.min(limit, order.length));
+        for (int i = 0; i < order.length && result.size() < limit; i++) {
+            result.add(matched.get(order[i]));
+        }
+        return result;
+    }
+
+    public List<HouseLocationView> withinBounds(double south, double west, double north, double east, int limit) {
+        List<HouseLocationView> candidates = collect(south, west, north, east);
+        List<HouseLocationView> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (HouseLocationView view : candidates) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (view.latitude() >= south && view.latitude() <= north
+                    && view.longitude() >= west && view.longitude() <= east) {
+                result.add(view);
+            }
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onListingsReloaded(HouseListingsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellOfHouse.clear();
+            event.listings().forEach(this::indexLocked);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.houseId());
+            if (!event.isRemoval()) {
+                indexLocked(event.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 范围内单元格数超过非空单元格数时（如缩放到全国视野），改为遍历非空单元格
+    private List<HouseLocationView> collect(double south, double west, double north, double east) {
+        long minRow = cellIndex(Math.max(-90, south));
+        long maxRow = cellIndex(Math.min(90, north));
+        long minColumn = cellIndex(Math.max(-180, west));
+        long maxColumn = cellIndex(Math.min(180, east));
+        List<HouseLocationView> candidates = new ArrayList<>();
+        if (minRow > maxRow || minColumn > maxColumn) {
+            return candidates;
+        }
+        lock.readLock().lock();
+        try {
+            long span = (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+            if (span > cells.size()) {
+                for (Map.Entry<Long, List<HouseLocationView>> entry : cells.entrySet()) {
+                    long row = entry.getKey() >> 32;
+                    long column = (int) entry.getKey().longValue();
+                    if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+                        candidates.addAll(entry.getValue());
+                    }
+                }
+                return candidates;
+            }
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long column = minColumn; column <= maxColumn; column++) {
+                    List<HouseLocationView> cell = cells.get(cellKey(row, column));
+                    if (cell != null) {
+                        candidates.addAll(cell);
+                    }
+                }
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexLocked(HouseListingSnapshot snapshot) {
+        if (snapshot.id() == null || snapshot.status() != ListingStatus.APPROVED
+                || snapshot.latitude() == null || snapshot.longitude() == null) {
+            return;
+        }
+        long key = cellKey(cellIndex(snapshot.latitude()), cellIndex(snapshot.longitude()));
+        cells.computeIfAbsent(key, ignored -> new ArrayList<>()).add(HouseLocationView.fromSnapshot(snapshot));
+        cellOfHouse.put(snapshot.id(), key);
+    }
+
+    private void removeLocked(Long houseId) {
+        Long key = cellOfHouse.remove(houseId);
+        if (key == null) {
+            return;
+        }
+        List<HouseLocationView> cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        cell.removeIf(view -> houseId.equals(view.id()));
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    static long cellKey(long row, long column) {
+        return (row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.house;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum HouseImportFormat {
+    CSV(MediaType.parseMediaType("text/csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    HouseImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static HouseImportFormat fromContentType(String contentType) {
+        try {
+            MediaType requested = MediaType.parseMediaType(contentType);
+            for (HouseImportFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(requested)) {
+                    return format;
+                }
+            }
+        } catch (InvalidMediaTypeException ignored) {
+            // 按不支持的格式处理
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "仅支持 text/csv 或 application/x-ndjson 格式导入");
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.house;
+
+import java.util.List;
+
+public record HouseImportReport(
+        String sellerUsername,
+        int total,
+        int imported,
+        int duplicates,
+        int invalid,
+        int failed,
+        int skipped,
+        long durationMillis,
+        List<HouseImportRowResult> rows
+) {
+}
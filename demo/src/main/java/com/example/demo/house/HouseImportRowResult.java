@@ -0,0 +1,17 @@
+package com.example.demo.house;
+
+public record HouseImportRowResult(
+        int row,
+        Outcome outcome,
+        Long houseId,
+        String message
+) {
+
+    public enum Outcome {
+        IMPORTED,
+        DUPLICATE,
+        INVALID,
+        FAILED,
+        SKIPPED
+    }
+}
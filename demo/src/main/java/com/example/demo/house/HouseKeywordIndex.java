@@ -0,0 +1,325 @@
+package com.example.demo.house;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// 标题、地址、描述与标签的倒排索引，倒排表以有序 int 数组存储房源 ID，并按字段打包词频供 BM25 打分；
+// 同时保留每个房源的快照，调用方可在索引内完成状态、价格等条件筛选，不必把整个倒排表交给数据库
+@Component
+public class HouseKeywordIndex {
+
+    // 字段顺序：标题、标签、地址、描述，每个字段的词频占打包 int 中的 8 位
+    private static final int FIELD_COUNT = 4;
+    private static final float[] FIELD_BOOSTS = {3.0f, 2.0f, 1.5f, 1.0f};
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Integer, String[]> documentTerms = new HashMap<>();
+    private final Map<Integer, int[]> documentFieldLengths = new HashMap<>();
+    private final Map<Integer, HouseListingSnapshot> documents = new HashMap<>();
+    private final long[] fieldLengthTotals = new long[FIELD_COUNT];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 返回同时包含全部查询词元的房源 ID（升序），查询无有效词元时返回 null 表示无法走索引
+    public int[] search(String query) {
+        List<String> terms = HouseTextTokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return matchLocked(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 返回同时包含全部查询词元且满足 filter 的房源快照（按 ID 升序），查询无有效词元时返回 null
+    public List<HouseListingSnapshot> searchDocuments(String query, Predicate<HouseListingSnapshot> filter) {
+        List<String> terms = HouseTextTokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int[] docs = matchLocked(terms);
+            List<HouseListingSnapshot> hits = new ArrayList<>();
+            for (int doc : docs) {
+                HouseListingSnapshot snapshot = documents.get(doc);
+                if (snapshot != null && filter.test(snapshot)) {
+                    hits.add(snapshot);
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 不按词元检索，返回满足 filter 的全部房源快照（按 ID 升序），供无关键词的分面统计直接在内存中计数
+    public List<HouseListingSnapshot> filterDocuments(Predicate<HouseListingSnapshot> filter) {
+        lock.readLock().lock();
+        try {
+            List<HouseListingSnapshot> hits = new ArrayList<>();
+            for (HouseListingSnapshot snapshot : documents.values()) {
+                if (filter.test(snapshot)) {
+                    hits.add(snapshot);
+                }
+            }
+            hits.sort(Comparator.comparing(HouseListingSnapshot::id));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 返回命中文档及其 BM25F 得分：各字段词频按权重（标题 > 标签 > 地址 > 描述）与长度归一化后合并
+    public KeywordMatches scoredSearch(String query) {
+        return scoredSearch(query, snapshot -> true);
+    }
+
+    // 先按 filter 剔除不满足条件的命中，只为剩余文档打分
+    public KeywordMatches scoredSearch(String query, Predicate<HouseListingSnapshot> filter) {
+        List<String> terms = HouseTextTokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int[] docs = filterLocked(matchLocked(terms), filter);
+            // 无命中时直接返回：未收录的词没有倒排表，不能参与打分
+            if (docs.length == 0) {
+                return new KeywordMatches(docs, new float[0]);
+            }
+            float[] scores = new float[docs.length];
+            int documentCount = documentFieldLengths.size();
+            float[] averageLengths = new float[FIELD_COUNT];
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                averageLengths[field] = documentCount == 0 ? 1f
+                        : Math.max(1f, (float) fieldLengthTotals[field] / documentCount);
+            }
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                float idf = (float) Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < docs.length; i++) {
+                    int packed = list.frequencyOf(docs[i]);
+                    int[] lengths = documentFieldLengths.get(docs[i]);
+                    float weightedFrequency = 0f;
+                    for (int field = 0; field < FIELD_COUNT; field++) {
+                        int frequency = (packed >>> (field * 8)) & 0xFF;
+                        if (frequency == 0) {
+                            continue;
+                        }
+                        float norm = 1 - B + B * lengths[field] / averageLengths[field];
+                        weightedFrequency += FIELD_BOOSTS[field] * frequency / norm;
+                    }
+                    scores[i] += idf * weightedFrequency / (K1 + weightedFrequency);
+                }
+            }
+            return new KeywordMatches(docs, scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] filterLocked(int[] docs, Predicate<HouseListingSnapshot> filter) {
+        int length = 0;
+        for (int doc : docs) {
+            HouseListingSnapshot snapshot = documents.get(doc);
+            if (snapshot != null && filter.test(snapshot)) {
+                docs[length++] = doc;
+            }
+        }
+        return length == docs.length ? docs : Arrays.copyOf(docs, length);
+    }
+
+    private int[] matchLocked(List<String> terms) {
+        PostingList[] lists = new PostingList[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            PostingList list = postings.get(terms.get(i));
+            if (list == null || list.size == 0) {
+                return new int[0];
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists[0].docs, lists[0].size);
+        int length = result.length;
+        for (int i = 1; i < lists.length && length > 0; i++) {
+            length = intersect(result, length, lists[i]);
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    @EventListener
+    public void onListingsReloaded(HouseListingsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentFieldLengths.clear();
+            documents.clear();
+            Arrays.fill(fieldLengthTotals, 0L);
+            event.listings().forEach(this::indexLocked);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(toDocId(event.houseId()));
+            if (!event.isRemoval()) {
+                indexLocked(event.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexLocked(HouseListingSnapshot snapshot) {
+        if (snapshot.id() == null) {
+            return;
+        }
+        int docId = toDocId(snapshot.id());
+        List<List<String>> fieldTokens = new ArrayList<>(FIELD_COUNT);
+        fieldTokens.add(HouseTextTokenizer.tokenize(snapshot.title()));
+        List<String> keywordTokens = new ArrayList<>();
+        snapshot.keywords().forEach(keyword -> keywordTokens.addAll(HouseTextTokenizer.tokenize(keyword)));
+        fieldTokens.add(keywordTokens);
+        fieldTokens.add(HouseTextTokenizer.tokenize(snapshot.address()));
+        fieldTokens.add(HouseTextTokenizer.tokenize(snapshot.description()));
+
+        Map<String, Integer> packedFrequencies = new LinkedHashMap<>();
+        int[] lengths = new int[FIELD_COUNT];
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            List<String> tokens = fieldTokens.get(field);
+            lengths[field] = tokens.size();
+            fieldLengthTotals[field] += tokens.size();
+            int shift = field * 8;
+            for (String token : tokens) {
+                packedFrequencies.merge(token, 1 << shift, (current, increment) ->
+                        ((current >>> shift) & 0xFF) == 0xFF ? current : current + increment);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : packedFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new PostingList()).add(docId, entry.getValue());
+        }
+        documentTerms.put(docId, packedFrequencies.keySet().toArray(String[]::new));
+        documentFieldLengths.put(docId, lengths);
+        documents.put(docId, snapshot);
+    }
+
+    private void removeLocked(int docId) {
+        String[] terms = documentTerms.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        documents.remove(docId);
+        int[] lengths = documentFieldLengths.remove(docId);
+        if (lengths != null) {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                fieldLengthTotals[field] -= lengths[field];
+            }
+        }
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(docId) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // 就地求交：result[0..length) 与 other 的交集写回 result 前部
+    private static int intersect(int[] result, int length, PostingList other) {
+        int write = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < other.size; i++) {
+            int doc = result[i];
+            while (j < other.size && other.docs[j] < doc) {
+                j++;
+            }
+            if (j < other.size && other.docs[j] == doc) {
+                result[write++] = doc;
+                j++;
+            }
+        }
+        return write;
+    }
+
+    private static int toDocId(Long houseId) {
+        return Math.toIntExact(houseId);
+    }
+
+    public record KeywordMatches(int[] docIds, float[] scores) {
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int docId, int packedFrequency) {
+            int insertAt;
+            if (size == 0 || docs[size - 1] < docId) {
+                insertAt = size;
+            } else {
+                int position = Arrays.binarySearch(docs, 0, size, docId);
+                if (position >= 0) {
+                    frequencies[position] = packedFrequency;
+                    return;
+                }
+                insertAt = -position - 1;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, docs.length * 2);
+                frequencies = Arrays.copyOf(frequencies, frequencies.length * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+            docs[insertAt] = docId;
+            frequencies[insertAt] = packedFrequency;
+            size++;
+        }
+
+        private boolean remove(int docId) {
+            int position = Arrays.binarySearch(docs, 0, size, docId);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private int frequencyOf(int docId) {
+            int position = Arrays.binarySearch(docs, 0, size, docId);
+            return position < 0 ? 0 : frequencies[position];
+        }
+    }
+}
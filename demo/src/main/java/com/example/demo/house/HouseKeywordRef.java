@@ -0,0 +1,4 @@
+package com.example.demo.house;
+
+public record HouseKeywordRef(Long houseId, String keyword) {
+}
@@ -0,0 +1,10 @@
+package com.example.demo.house;
+
+public enum HouseListingChangeType {
+    CREATED,
+    UPDATED,
+    REVIEWED,
+    SOLD,
+    REOPENED,
+    REMOVED
+}
@@ -0,0 +1,20 @@
+package com.example.demo.house;
+
+public record HouseListingChangedEvent(
+        HouseListingChangeType type,
+        Long houseId,
+        HouseListingSnapshot snapshot
+) {
+
+    public static HouseListingChangedEvent of(HouseListingChangeType type, SecondHandHouse house) {
+        return new HouseListingChangedEvent(type, house.getId(), HouseListingSnapshot.fromEntity(house));
+    }
+
+    public static HouseListingChangedEvent removed(Long houseId) {
+        return new HouseListingChangedEvent(HouseListingChangeType.REMOVED, houseId, null);
+    }
+
+    public boolean isRemoval() {
+        return type == HouseListingChangeType.REMOVED || snapshot == null;
+    }
+}
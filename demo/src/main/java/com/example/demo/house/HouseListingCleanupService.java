@@ -0,0 +1,189 @@
+package com.example.demo.house;
+
+import com.example.demo.archive.ListingArchiveService;
+import com.example.demo.order.HouseOrderRepository;
+import com.example.demo.order.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+// 房源过期归档：日常由 HouseExpiryScheduler 按到期时间逐批触发，管理员也可手动按 ID 键集分块全量扫描；
+// 每块在独立事务中用反连接筛出没有未完结订单的房源，先整体归档（房源、图片、标签与已完结订单）再从主表批量删除
+@Service
+public class HouseListingCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(HouseListingCleanupService.class);
+    static final int CHUNK_SIZE = 500;
+    static final Period STALE_AFTER = Period.ofMonths(1);
+    static final Duration SOLD_RETENTION = Duration.ofDays(7);
+    private static final String STALE_REASON = "STALE";
+    private static final String SOLD_REASON = "SOLD";
+    private static final List<OrderStatus> OPEN_ORDER_STATUSES =
+            List.of(OrderStatus.PENDING, OrderStatus.RESERVED, OrderStatus.RETURN_REQUESTED);
+
+    private final SecondHandHouseRepository repository;
+    private final HouseOrderRepository houseOrderRepository;
+    private final ListingArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean expiryDryRun;
+    private volatile List<HouseCleanupReport> lastReports = List.of();
+
+    public HouseListingCleanupService(SecondHandHouseRepository repository,
+                                      HouseOrderRepository houseOrderRepository,
+                                      ListingArchiveService archiveService,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.house-cleanup.dry-run:false}") boolean expiryDryRun) {
+        this.repository = repository;
+        this.houseOrderRepository = houseOrderRepository;
+        this.archiveService = archiveService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expiryDryRun = expiryDryRun;
+    }
+
+    // 到期队列触发：先在数据库中复核期限与状态，再归档；返回已到期但仍有未完结订单、需要稍后再试的房源
+    public List<Long> archiveExpiredStaleListings(List<Long> houseIds) {
+        LocalDate cutoffDate = LocalDate.now().minus(STALE_AFTER);
+        return archiveExpired(STALE_REASON, () -> repository.filterIdsListedBefore(
+                houseIds, ListingStatus.APPROVED, cutoffDate));
+    }
+
+    public List<Long> archiveExpiredSoldListings(List<Long> houseIds) {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(SOLD_RETENTION);
+        return archiveExpired(SOLD_REASON, () -> repository.filterIdsUpdatedBefore(
+                houseIds, ListingStatus.SOLD, cutoff));
+    }
+
+    // 已售房源复核未通过（数据库中的更新时间晚于任务所用的快照）时，返回仍为已售状态的房源的实际更新时间
+    public Map<Long, OffsetDateTime> soldUpdatedAt(List<Long> houseIds) {
+        Map<Long, OffsetDateTime> updatedAt = new HashMap<>();
+        for (HouseVersionStamp stamp : repository.findVersionStamps(houseIds, ListingStatus.SOLD)) {
+            if (stamp.updatedAt() != null) {
+                updatedAt.put(stamp.id(), stamp.updatedAt());
+            }
+        }
+        return updatedAt;
+    }
+
+    private List<Long> archiveExpired(String reason, Supplier<List<Long>> dueHouses) {
+        List<Long> due = new ArrayList<>();
+        ChunkResult result = transactionTemplate.execute(status -> {
+            due.addAll(dueHouses.get());
+            return archiveChunk(due, reason, expiryDryRun);
+        });
+        if (result == null || result.scanned() == 0) {
+            return List.of();
+        }
+        if (!result.removable().isEmpty() || expiryDryRun) {
+            log.info("{}到期归档 {} 套房源（原因 {}，到期 {} 套，历史订单 {} 条）", expiryDryRun ? "[演练] " : "",
+                    result.removable().size(), reason, result.scanned(), result.archivedOrders());
+        }
+        Set<Long> archived = new HashSet<>(result.removable());
+        return due.stream().filter(id -> !archived.contains(id)).toList();
+    }
+
+    public List<HouseCleanupReport> run(boolean dryRun) {
+        HouseCleanupReport stale = cleanupStaleListings(dryRun);
+        HouseCleanupReport delisted = cleanupDelistedListings(dryRun);
+        lastReports = List.of(stale, delisted);
+        if (stale.archived() > 0 || delisted.archived() > 0 || dryRun) {
+            log.info("{}归档 {} 套超过一个月无人购买的房源、{} 套已售出房源及 {} 条历史订单（扫描 {} / {} 条，耗时 {} / {} 毫秒）",
+                    dryRun ? "[演练] " : "", stale.archived(), delisted.archived(),
+                    stale.archivedOrders() + delisted.archivedOrders(), stale.scanned(), delisted.scanned(),
+                    stale.durationMillis(), delisted.durationMillis());
+        }
+        return lastReports;
+    }
+
+    public List<HouseCleanupReport> lastReports() {
+        return lastReports;
+    }
+
+    public HouseCleanupReport cleanupStaleListings(boolean dryRun) {
+        LocalDate cutoffDate = LocalDate.now().minus(STALE_AFTER);
+        return runChunked("stale-listings", STALE_REASON, dryRun, afterId -> repository.findIdsListedBefore(
+                ListingStatus.APPROVED, cutoffDate, afterId, Limit.of(CHUNK_SIZE)));
+    }
+
+    public HouseCleanupReport cleanupDelistedListings(boolean dryRun) {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(SOLD_RETENTION);
+        return runChunked("delisted-listings", SOLD_REASON, dryRun, afterId -> repository.findIdsUpdatedBefore(
+                ListingStatus.SOLD, cutoff, afterId, Limit.of(CHUNK_SIZE)));
+    }
+
+    private HouseCleanupReport runChunked(String job, String archiveReason, boolean dryRun,
+                                          LongFunction<List<Long>> candidateChunk) {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        long started = System.nanoTime();
+        long scanned = 0;
+        long archived = 0;
+        long archivedOrders = 0;
+        int chunks = 0;
+        long afterId = 0L;
+        while (true) {
+            long cursor = afterId;
+            ChunkResult result = transactionTemplate.execute(status -> {
+                List<Long> candidates = candidateChunk.apply(cursor);
+                return candidates.isEmpty()
+                        ? new ChunkResult(0, List.of(), 0, cursor)
+                        : archiveChunk(candidates, archiveReason, dryRun);
+            });
+            if (result == null || result.scanned() == 0) {
+                break;
+            }
+            chunks++;
+            scanned += result.scanned();
+            archived += result.removable().size();
+            archivedOrders += result.archivedOrders();
+            afterId = result.lastId();
+            if (result.scanned() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        return new HouseCleanupReport(job, dryRun, scanned, archived, archivedOrders, chunks, durationMillis, startedAt);
+    }
+
+    private ChunkResult archiveChunk(List<Long> candidates, String archiveReason, boolean dryRun) {
+        if (candidates.isEmpty()) {
+            return new ChunkResult(0, List.of(), 0, 0L);
+        }
+        List<Long> removable = repository.findIdsWithoutOpenOrders(
+                candidates, OPEN_ORDER_STATUSES, OrderStatus.PAID);
+        int orders = 0;
+        if (!dryRun && !removable.isEmpty()) {
+            orders = archiveService.archive(removable, archiveReason);
+            houseOrderRepository.deleteByHouseIds(removable);
+            repository.deleteImagesByHouseIds(removable);
+            repository.deleteKeywordsByHouseIds(removable);
+            repository.deleteByIds(removable);
+            removable.forEach(id -> eventPublisher.publishEvent(HouseListingChangedEvent.removed(id)));
+        }
+        return new ChunkResult(candidates.size(), removable, orders, candidates.get(candidates.size() - 1));
+    }
+
+    private record ChunkResult(int scanned, List<Long> removable, int archivedOrders, long lastId) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.house;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 启动时分批读取全部房源一次，广播快照供各内存索引重建
+@Component
+public class HouseListingIndexBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(HouseListingIndexBootstrap.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final SecondHandHouseRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public HouseListingIndexBootstrap(SecondHandHouseRepository repository,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reloadIndexes() {
+        List<HouseListingSnapshot> snapshots = new ArrayList<>();
+        long lastId = 0L;
+        while (true) {
+            List<SecondHandHouse> batch = repository.findBy(SecondHandHouseSpecifications.idGreaterThan(lastId),
+                    query -> query.sortBy(Sort.by("id")).limit(BATCH_SIZE).all());
+            if (batch.isEmpty()) {
+                break;
+            }
+            batch.forEach(house -> snapshots.add(HouseListingSnapshot.fromEntity(house)));
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        eventPublisher.publishEvent(new HouseListingsReloadedEvent(List.copyOf(snapshots)));
+        log.info("房源内存索引已加载 {} 条房源", snapshots.size());
+    }
+}
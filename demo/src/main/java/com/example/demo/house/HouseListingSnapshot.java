@@ -0,0 +1,43 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record HouseListingSnapshot(
+        Long id,
+        String title,
+        String address,
+        String description,
+        List<String> keywords,
+        String sellerUsername,
+        ListingStatus status,
+        BigDecimal price,
+        BigDecimal area,
+        Integer floor,
+        Double latitude,
+        Double longitude,
+        LocalDate listingDate,
+        OffsetDateTime updatedAt
+) {
+
+    public static HouseListingSnapshot fromEntity(SecondHandHouse house) {
+        return new HouseListingSnapshot(
+                house.getId(),
+                house.getTitle(),
+                house.getAddress(),
+                house.getDescription(),
+                house.getKeywords() == null ? List.of() : List.copyOf(house.getKeywords()),
+                house.getSellerUsername(),
+                house.getStatus(),
+                house.getPrice(),
+                house.getArea(),
+                house.getFloor(),
+                house.getLatitude(),
+                house.getLongitude(),
+                house.getListingDate(),
+                house.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.house;
+
+import java.util.List;
+
+public record HouseListingsReloadedEvent(List<HouseListingSnapshot> listings) {
+}
@@ -29,4 +29,17 @@ public record HouseLocationView(
                 house.getUpdatedAt()
         );
     }
+
+    public static HouseLocationView fromSnapshot(HouseListingSnapshot snapshot) {
+        return new HouseLocationView(
+                snapshot.id(),
+                snapshot.title(),
+                snapshot.address(),
+                snapshot.price(),
+                snapshot.status(),
+                snapshot.latitude(),
+                snapshot.longitude(),
+                snapshot.updatedAt()
+        );
+    }
 }
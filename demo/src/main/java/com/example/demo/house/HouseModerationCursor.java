@@ -0,0 +1,44 @@
+package com.example.demo.house;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// 审核队列游标：按提交时间升序、同一时间按 ID 升序，记录上一页最后一条的位置
+public record HouseModerationCursor(OffsetDateTime createdAt, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static HouseModerationCursor after(HouseModerationItem item) {
+        return new HouseModerationCursor(item.createdAt(), item.id());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HouseModerationCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw invalidCursor();
+            }
+            return new HouseModerationCursor(OffsetDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw invalidCursor();
+        }
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "审核队列游标无效");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// 审核队列条目：只含审核所需的主表字段，疑似重复房源 ID 取自内存索引
+public record HouseModerationItem(
+        Long id,
+        String title,
+        String address,
+        BigDecimal price,
+        BigDecimal area,
+        String sellerUsername,
+        OffsetDateTime createdAt,
+        List<Long> duplicateSuspectIds
+) {
+
+    // 供 JPQL 构造表达式使用
+    public HouseModerationItem(Long id,
+                               String title,
+                               String address,
+                               BigDecimal price,
+                               BigDecimal area,
+                               String sellerUsername,
+                               OffsetDateTime createdAt) {
+        this(id, title, address, price, area, sellerUsername, createdAt, List.of());
+    }
+
+    public HouseModerationItem withDuplicateSuspects(List<Long> suspectIds) {
+        return new HouseModerationItem(id, title, address, price, area, sellerUsername, createdAt, suspectIds);
+    }
+}
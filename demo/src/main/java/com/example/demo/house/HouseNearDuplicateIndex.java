@@ -0,0 +1,190 @@
+package com.example.demo.house;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 跨卖家近似重复检测：标题、地址、描述、标签与约百米精度的坐标共同生成 64 位 SimHash，
+// 签名切成 4 段 16 位分桶，海明距离不超过 3 的两条签名必有一段完全相同，只需比较同桶房源
+@Component
+public class HouseNearDuplicateIndex {
+
+    static final int MAX_DISTANCE = 3;
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 16;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int ADDRESS_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+    private static final int LOCATION_WEIGHT = 8;
+
+    private final Map<Integer, List<Long>> buckets = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 查询与给定房源近似的其他房源（不含自身），按海明距离升序
+    public List<HouseDuplicateCandidate> findSimilar(HouseListingSnapshot snapshot) {
+        long signature = signature(snapshot);
+        lock.readLock().lock();
+        try {
+            return similarLocked(snapshot.id(), signature);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 直接使用已索引房源的签名，无需加载实体；未被索引（草稿、已驳回）时返回空列表
+    public List<HouseDuplicateCandidate> findSimilarTo(Long houseId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(houseId);
+            return entry == null ? List.of() : similarLocked(houseId, entry.signature());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<HouseDuplicateCandidate> similarLocked(Long selfId, long signature) {
+        Set<Long> seen = new LinkedHashSet<>();
+        List<HouseDuplicateCandidate> candidates = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<Long> bucket = buckets.get(bucketKey(band, signature));
+            if (bucket == null) {
+                continue;
+            }
+            for (Long houseId : bucket) {
+                if (houseId.equals(selfId) || !seen.add(houseId)) {
+                    continue;
+                }
+                Entry entry = entries.get(houseId);
+                int distance = Long.bitCount(entry.signature() ^ signature);
+                if (distance <= MAX_DISTANCE) {
+                    candidates.add(new HouseDuplicateCandidate(houseId, entry.title(), entry.address(),
+                            entry.sellerUsername(), entry.status(), distance));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt(HouseDuplicateCandidate::distance)
+                .thenComparing(HouseDuplicateCandidate::id));
+        return candidates;
+    }
+
+    @EventListener
+    public void onListingsReloaded(HouseListingsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            entries.clear();
+            event.listings().forEach(this::indexLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.houseId());
+            if (!event.isRemoval()) {
+                indexLocked(event.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 草稿与已驳回房源不参与比对
+    private void indexLocked(HouseListingSnapshot snapshot) {
+        if (snapshot.id() == null || snapshot.status() == ListingStatus.DRAFT
+                || snapshot.status() == ListingStatus.REJECTED) {
+            return;
+        }
+        long signature = signature(snapshot);
+        entries.put(snapshot.id(), new Entry(signature, snapshot.title(), snapshot.address(),
+                snapshot.sellerUsername(), snapshot.status()));
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucketKey(band, signature), ignored -> new ArrayList<>()).add(snapshot.id());
+        }
+    }
+
+    private void removeLocked(Long houseId) {
+        Entry entry = entries.remove(houseId);
+        if (entry == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            int key = bucketKey(band, entry.signature());
+            List<Long> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(houseId) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    static long signature(HouseListingSnapshot snapshot) {
+        int[] weights = new int[64];
+        addFeatures(weights, HouseTextTokenizer.tokenize(snapshot.title()), TITLE_WEIGHT);
+        addFeatures(weights, HouseTextTokenizer.tokenize(snapshot.address()), ADDRESS_WEIGHT);
+        addFeatures(weights, HouseTextTokenizer.tokenize(snapshot.description()), TEXT_WEIGHT);
+        snapshot.keywords().forEach(keyword -> addFeature(weights, "tag:" + keyword, TEXT_WEIGHT));
+        if (snapshot.latitude() != null && snapshot.longitude() != null) {
+            long row = Math.round(snapshot.latitude() * 1000);
+            long column = Math.round(snapshot.longitude() * 1000);
+            addFeature(weights, "geo:" + row + ":" + column, LOCATION_WEIGHT);
+        }
+        long signature = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    private static void addFeatures(int[] weights, List<String> tokens, int weight) {
+        tokens.forEach(token -> addFeature(weights, token, weight));
+    }
+
+    private static void addFeature(int[] weights, String feature, int weight) {
+        long hash = hash64(feature);
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) == 1L ? weight : -weight;
+        }
+    }
+
+    // FNV-1a 后接 splitmix64 混淆，使相近字符串的哈希位分布均匀
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        hash ^= hash >>> 31;
+        return hash;
+    }
+
+    private static int bucketKey(int band, long signature) {
+        int value = (int) ((signature >>> (band * BAND_BITS)) & 0xFFFF);
+        return (band << BAND_BITS) | value;
+    }
+
+    private record Entry(long signature, String title, String address, String sellerUsername, ListingStatus status) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.house;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record HousePageCursor(HouseSortField sortField,
+                              Sort.Direction direction,
+                              String sortValue,
+                              long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static HousePageCursor after(SecondHandHouse house, HouseSortField sortField, Sort.Direction direction) {
+        return new HousePageCursor(sortField, direction, sortField.cursorValueOf(house), house.getId());
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortField.name(), direction.name(), sortValue, Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HousePageCursor decode(String token, HouseSortField expectedField, Sort.Direction expectedDirection) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw invalidCursor();
+            }
+            HousePageCursor cursor = new HousePageCursor(
+                    HouseSortField.valueOf(parts[0]),
+                    Sort.Direction.valueOf(parts[1]),
+                    parts[2],
+                    Long.parseLong(parts[3])
+            );
+            cursor.sortField().parseCursorValue(cursor.sortValue());
+            if (cursor.sortField() != expectedField || cursor.direction() != expectedDirection) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "分页游标与当前排序方式不一致，请重新查询");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw invalidCursor();
+        }
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "分页游标无效");
+    }
+}
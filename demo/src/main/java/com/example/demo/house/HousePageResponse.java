@@ -0,0 +1,10 @@
+package com.example.demo.house;
+
+import java.util.List;
+
+public record HousePageResponse(
+        List<SecondHandHouseView> items,
+        String nextCursor,
+        boolean hasMore
+) {
+}
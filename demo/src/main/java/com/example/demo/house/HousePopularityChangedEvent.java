@@ -0,0 +1,7 @@
+package com.example.demo.house;
+
+import java.util.Map;
+
+// 浏览计数落库后广播，携带本次有变化的房源及其累计浏览数
+public record HousePopularityChangedEvent(Map<Long, Long> viewTotals) {
+}
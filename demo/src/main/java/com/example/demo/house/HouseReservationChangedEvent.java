@@ -0,0 +1,4 @@
+package com.example.demo.house;
+
+public record HouseReservationChangedEvent(Long houseId) {
+}
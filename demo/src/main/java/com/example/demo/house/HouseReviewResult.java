@@ -0,0 +1,13 @@
+package com.example.demo.house;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+// 单条审核结果：房源字段平铺在顶层，与原先直接返回房源视图的响应兼容；
+// duplicateSuspects 为审核通过时与之疑似重复的其他房源 ID，供管理员复核
+public record HouseReviewResult(
+        @JsonUnwrapped SecondHandHouseView house,
+        List<Long> duplicateSuspects
+) {
+}
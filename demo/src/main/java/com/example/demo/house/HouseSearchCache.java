@@ -0,0 +1,142 @@
+package com.example.demo.house;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// 列表搜索结果缓存：按规范化查询条件与请求人可见性类别缓存视图，LRU 淘汰并设有效期，
+// 任何房源变更或预定状态变化都会递增全局版本号，旧版本的条目在读取时即视为失效；
+// 相关度排序的结果还受浏览热度加权影响，热度版本号随浏览数落库递增并参与相关度查询的缓存键
+@Component
+public class HouseSearchCache {
+
+    private static final int CAPACITY = 512;
+    private static final long TTL_NANOS = Duration.ofSeconds(60).toNanos();
+
+    // 版本号以启动时间为起点，重启后不会与客户端持有的旧 ETag 中的版本号重合
+    private final AtomicLong listingVersion = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong popularityVersion = new AtomicLong(System.currentTimeMillis());
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<String, CachedSearch> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSearch> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    public long currentVersion() {
+        return listingVersion.get();
+    }
+
+    public long popularityVersion() {
+        return popularityVersion.get();
+    }
+
+    public CachedSearch get(String key) {
+        CachedSearch cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+            if (cached != null && (cached.version() != listingVersion.get()
+                    || System.nanoTime() - cached.createdAtNanos() > TTL_NANOS)) {
+                entries.remove(key);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    // version 应在执行查询之前读取，查询期间发生的变更会让这次写入直接失效
+    public void put(String key, long version, List<SecondHandHouseView> views, Map<Long, String> reservationHolders) {
+        if (version != listingVersion.get()) {
+            return;
+        }
+        CachedSearch cached = new CachedSearch(version, System.nanoTime(), List.copyOf(views), Map.copyOf(reservationHolders));
+        synchronized (entries) {
+            entries.put(key, cached);
+        }
+    }
+
+    public HouseSearchCacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new HouseSearchCacheStats(hitCount, missCount, total == 0 ? 0 : (double) hitCount / total,
+                size, CAPACITY, listingVersion.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        listingVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(HouseReservationChangedEvent event) {
+        listingVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onPopularityChanged(HousePopularityChangedEvent event) {
+        popularityVersion.incrementAndGet();
+    }
+
+    public static String key(String visibilityClass,
+                             String normalizedKeyword,
+                             BigDecimal minPrice,
+                             BigDecimal maxPrice,
+                             BigDecimal minArea,
+                             BigDecimal maxArea,
+                             String sort,
+                             Integer limit) {
+        return String.join("|",
+                visibilityClass,
+                normalizedKeyword == null ? "" : normalizedKeyword,
+                plain(minPrice), plain(maxPrice), plain(minArea), plain(maxArea),
+                sort == null ? "" : sort,
+                limit == null ? "" : limit.toString());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.stripTrailingZeros().toPlainString();
+    }
+
+    public record CachedSearch(long version,
+                               long createdAtNanos,
+                               List<SecondHandHouseView> views,
+                               Map<Long, String> reservationHolders) {
+
+        // 可见性类别相同的请求人共享视图，只需按当前请求人重新计算“是否本人预定”
+        public List<SecondHandHouseView> viewsFor(String requesterUsername) {
+            return views.stream()
+                    .map(view -> {
+                        if (!view.reservationActive()) {
+                            return view;
+                        }
+                        String holder = reservationHolders.get(view.id());
+                        boolean owned = requesterUsername != null && holder != null
+                                && holder.equalsIgnoreCase(requesterUsername);
+                        return owned == view.reservationOwnedByRequester()
+                                ? view
+                                : view.withReservationOwnedByRequester(owned);
+                    })
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.house;
+
+public record HouseSearchCacheStats(
+        long hits,
+        long misses,
+        double hitRate,
+        int size,
+        int capacity,
+        long listingVersion
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.demo.house;
+
+import java.util.List;
+
+public record HouseSearchFacets(
+        List<HouseFacetBucket> price,
+        List<HouseFacetBucket> area,
+        List<HouseFacetBucket> floor,
+        List<HouseFacetBucket> tags
+) {
+}
@@ -0,0 +1,35 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+
+// 相似房源卡片：similarity 取值 (0, 1]，越大越相似
+public record HouseSimilarView(
+        Long id,
+        String title,
+        String address,
+        BigDecimal price,
+        BigDecimal area,
+        Integer floor,
+        Double latitude,
+        Double longitude,
+        double similarity
+) {
+
+    public static HouseSimilarView fromSnapshot(HouseListingSnapshot snapshot) {
+        return new HouseSimilarView(
+                snapshot.id(),
+                snapshot.title(),
+                snapshot.address(),
+                snapshot.price(),
+                snapshot.area(),
+                snapshot.floor(),
+                snapshot.latitude(),
+                snapshot.longitude(),
+                0
+        );
+    }
+
+    public HouseSimilarView withSimilarity(double value) {
+        return new HouseSimilarView(id, title, address, price, area, floor, latitude, longitude, value);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo.house;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 相似房源推荐：每套已上架房源编码为 14 维浮点向量（对数总价、对数面积、对数单价、楼层、平面坐标与标签哈希），
+// 各维按固定尺度归一化后连续存放在一个 float 数组中，查询时顺序扫描计算欧氏距离并用小顶堆保留最近的 K 套。
+// 维度较高时 KD 树剪枝效果很差，连续数组上的顺序扫描即可满足详情页的推荐需求
+@Component
+public class HouseSimilarityIndex {
+
+    static final int DIMENSIONS = 14;
+    private static final int GEO_OFFSET = 4;
+    private static final int TAG_OFFSET = 6;
+    private static final int TAG_BUCKETS = DIMENSIONS - TAG_OFFSET;
+    private static final int INITIAL_CAPACITY = 256;
+    // 总价相差约 40%、面积相差约 35%、单价相差约 30% 各计一个单位距离
+    private static final double PRICE_SCALE = 0.35;
+    private static final double AREA_SCALE = 0.3;
+    private static final double UNIT_PRICE_SCALE = 0.25;
+    private static final double FLOOR_SCALE = 10;
+    private static final double GEO_SCALE_KM = 2;
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final float TAG_WEIGHT = 0.8f;
+    // 任一方缺少坐标时不比较位置，按相距约 4 公里计入距离
+    private static final float MISSING_GEO_PENALTY = 4f;
+
+    private float[] vectors = new float[INITIAL_CAPACITY * DIMENSIONS];
+    private boolean[] located = new boolean[INITIAL_CAPACITY];
+    private HouseSimilarView[] views = new HouseSimilarView[INITIAL_CAPACITY];
+    private int size;
+    private final Map<Long, Integer> slotOfHouse = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 以已索引房源为中心查询最相似的 limit 套，房源未被索引（未上架）时返回 null
+    public List<HouseSimilarView> similarTo(Long houseId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotOfHouse.get(houseId);
+            if (slot == null) {
+                return null;
+            }
+            float[] query = Arrays.copyOfRange(vectors, slot * DIMENSIONS, (slot + 1) * DIMENSIONS);
+            return nearestLocked(query, located[slot], houseId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 以任意房源（如已售房源）的特征查询已上架的相似房源，排除其自身
+    public List<HouseSimilarView> similarTo(HouseListingSnapshot snapshot, int limit) {
+        float[] query = encode(snapshot);
+        boolean hasLocation = snapshot.latitude() != null && snapshot.longitude() != null;
+        lock.readLock().lock();
+        try {
+            return nearestLocked(query, hasLocation, snapshot.id(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onListingsReloaded(HouseListingsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(views, 0, size, null);
+            size = 0;
+            slotOfHouse.clear();
+            event.listings().forEach(this::indexLocked);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.houseId());
+            if (!event.isRemoval()) {
+                indexLocked(event.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<HouseSimilarView> nearestLocked(float[] query, boolean queryLocated, Long excludedId, int limit) {
+        Integer excludedSlot = excludedId == null ? null : slotOfHouse.get(excludedId);
+        int skip = excludedSlot == null ? -1 : excludedSlot;
+        HouseTopKSelector selector = new HouseTopKSelector(limit);
+        for (int slot = 0; slot < size; slot++) {
+            if (slot != skip) {
+                selector.offer(slot, -distanceLocked(query, queryLocated, slot));
+            }
+        }
+        long[] slots = selector.drainDescending();
+        List<HouseSimilarView> result = new ArrayList<>(slots.length);
+        for (long slot : slots) {
+            int index = (int) slot;
+            double distance = Math.sqrt(distanceLocked(query, queryLocated, index));
+            result.add(views[index].withSimilarity(1 / (1 + distance)));
+        }
+        return result;
+    }
+
+    // 平方欧氏距离，位置两维只在双方都有坐标时比较
+    private float distanceLocked(float[] query, boolean queryLocated, int slot) {
+        int base = slot * DIMENSIONS;
+        float distance = 0f;
+        for (int dimension = 0; dimension < GEO_OFFSET; dimension++) {
+            float delta = vectors[base + dimension] - query[dimension];
+            distance += delta * delta;
+        }
+        if (queryLocated && located[slot]) {
+            float north = vectors[base + GEO_OFFSET] - query[GEO_OFFSET];
+            float east = vectors[base + GEO_OFFSET + 1] - query[GEO_OFFSET + 1];
+            distance += north * north + east * east;
+        } else {
+            distance += MISSING_GEO_PENALTY;
+        }
+        for (int dimension = TAG_OFFSET; dimension < DIMENSIONS; dimension++) {
+            float delta = vectors[base + dimension] - query[dimension];
+            distance += delta * delta;
+        }
+        return distance;
+    }
+
+    // 只索引已上架房源，已售、待审核与已驳回的房源不作为推荐结果
+    private void indexLocked(HouseListingSnapshot snapshot) {
+        if (snapshot.id() == null || snapshot.status() != ListingStatus.APPROVED
+                || snapshot.price() == null || snapshot.area() == null || snapshot.area().signum() <= 0) {
+            return;
+        }
+        if (size == views.length) {
+            int capacity = views.length * 2;
+            vectors = Arrays.copyOf(vectors, capacity * DIMENSIONS);
+            located = Arrays.copyOf(located, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+        System.arraycopy(encode(snapshot), 0, vectors, size * DIMENSIONS, DIMENSIONS);
+        located[size] = snapshot.latitude() != null && snapshot.longitude() != null;
+        views[size] = HouseSimilarView.fromSnapshot(snapshot);
+        slotOfHouse.put(snapshot.id(), size);
+        size++;
+    }
+
+    // 用末尾元素填补空位，保持数组连续
+    private void removeLocked(Long houseId) {
+        Integer slot = slotOfHouse.remove(houseId);
+        if (slot == null) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            System.arraycopy(vectors, last * DIMENSIONS, vectors, slot * DIMENSIONS, DIMENSIONS);
+            located[slot] = located[last];
+            views[slot] = views[last];
+            slotOfHouse.put(views[slot].id(), slot);
+        }
+        views[last] = null;
+    }
+
+    static float[] encode(HouseListingSnapshot snapshot) {
+        float[] vector = new float[DIMENSIONS];
+        double price = positive(snapshot.price());
+        double area = positive(snapshot.area());
+        vector[0] = (float) (Math.log(price) / PRICE_SCALE);
+        vector[1] = (float) (Math.log(area) / AREA_SCALE);
+        vector[2] = (float) (Math.log(price / area) / UNIT_PRICE_SCALE);
+        vector[3] = snapshot.floor() == null ? 0f : (float) (snapshot.floor() / FLOOR_SCALE);
+        if (snapshot.latitude() != null && snapshot.longitude() != null) {
+            double northKm = snapshot.latitude() * KM_PER_DEGREE;
+            double eastKm = snapshot.longitude() * KM_PER_DEGREE * Math.cos(Math.toRadians(snapshot.latitude()));
+            vector[GEO_OFFSET] = (float) (northKm / GEO_SCALE_KM);
+            vector[GEO_OFFSET + 1] = (float) (eastKm / GEO_SCALE_KM);
+        }
+        // 标签按哈希分到 8 个桶并带正负号，数量不同的房源按标签数开方归一
+        List<String> keywords = snapshot.keywords() == null ? List.of() : snapshot.keywords();
+        if (!keywords.isEmpty()) {
+            float weight = (float) (TAG_WEIGHT / Math.sqrt(keywords.size()));
+            for (String keyword : keywords) {
+                int hash = keyword.trim().toLowerCase(Locale.ROOT).hashCode() * 0x9E3779B1;
+                int bucket = (hash >>> 1) % TAG_BUCKETS;
+                vector[TAG_OFFSET + bucket] += (hash & 1) == 0 ? weight : -weight;
+            }
+        }
+        return vector;
+    }
+
+    private static double positive(BigDecimal value) {
+        return value == null || value.signum() <= 0 ? 1 : value.doubleValue();
+    }
+}
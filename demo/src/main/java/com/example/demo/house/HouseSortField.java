@@ -0,0 +1,66 @@
+package com.example.demo.house;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+
+public enum HouseSortField {
+    PRICE("price"),
+    AREA("area"),
+    LISTING_DATE("listingDate"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    HouseSortField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public String cursorValueOf(SecondHandHouse house) {
+        return switch (this) {
+            case PRICE -> house.getPrice().toPlainString();
+            case AREA -> house.getArea().toPlainString();
+            case LISTING_DATE -> house.getListingDate().toString();
+            case UPDATED_AT -> house.getUpdatedAt().toString();
+        };
+    }
+
+    // 与 cursorValueOf 对应，从关键词索引中的快照取排序键
+    public Comparable<?> valueOf(HouseListingSnapshot snapshot) {
+        return switch (this) {
+            case PRICE -> snapshot.price();
+            case AREA -> snapshot.area();
+            case LISTING_DATE -> snapshot.listingDate();
+            case UPDATED_AT -> snapshot.updatedAt();
+        };
+    }
+
+    public Comparable<?> parseCursorValue(String value) {
+        return switch (this) {
+            case PRICE, AREA -> new BigDecimal(value);
+            case LISTING_DATE -> LocalDate.parse(value);
+            case UPDATED_AT -> OffsetDateTime.parse(value);
+        };
+    }
+
+    public static HouseSortField fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return UPDATED_AT;
+        }
+        String normalized = value.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        for (HouseSortField field : values()) {
+            if (field.property.toLowerCase(Locale.ROOT).equals(normalized)) {
+                return field;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "不支持的排序字段：" + value);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// 实时推送的房源变更，id 单调递增并作为 SSE 的事件 ID；下架与预定变化只带房源 ID
+public record HouseStreamEvent(
+        long id,
+        HouseStreamEventType type,
+        Long houseId,
+        ListingStatus status,
+        String title,
+        BigDecimal price,
+        BigDecimal area,
+        OffsetDateTime occurredAt
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.demo.house;
+
+// 推送给前端的房源变更类型，只描述公开可见性的变化：进入公开列表、内容更新、预定状态变化、售出与下架
+public enum HouseStreamEventType {
+    APPROVED,
+    UPDATED,
+    RESERVATION_CHANGED,
+    SOLD,
+    REMOVED
+}
@@ -0,0 +1,270 @@
+package com.example.demo.house;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 搜索框联想：已上架房源的标题、地址与标签构成前缀树，词条权重为引用它的各房源热度权重之和，
+// 节点记录子树最大权重，查询时按最大权重优先展开，只访问能进入前 N 的分支
+@Component
+public class HouseSuggestionIndex {
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final Node root = new Node();
+    private final HouseViewCounter viewCounter;
+    private final Map<Long, Map<String, String>> termsOfHouse = new HashMap<>();
+    private final Map<Long, Long> weightOfHouse = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public HouseSuggestionIndex(HouseViewCounter viewCounter) {
+        this.viewCounter = viewCounter;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<HouseSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            if (node == null || node.maxWeight == 0) {
+                return List.of();
+            }
+            List<HouseSuggestion> suggestions = new ArrayList<>(limit);
+            PriorityQueue<Candidate> frontier = new PriorityQueue<>();
+            frontier.add(new Candidate(node, node.maxWeight, false));
+            while (!frontier.isEmpty() && suggestions.size() < limit) {
+                Candidate candidate = frontier.poll();
+                if (candidate.terminal()) {
+                    suggestions.add(new HouseSuggestion(candidate.node().display, candidate.node().weight));
+                    continue;
+                }
+                Node current = candidate.node();
+                if (current.weight > 0) {
+                    frontier.add(new Candidate(current, current.weight, true));
+                }
+                for (int i = 0; i < current.childCount; i++) {
+                    Node child = current.children[i];
+                    if (child.maxWeight > 0) {
+                        frontier.add(new Candidate(child, child.maxWeight, false));
+                    }
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onListingsReloaded(HouseListingsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            root.clear();
+            termsOfHouse.clear();
+            weightOfHouse.clear();
+            event.listings().forEach(this::indexLocked);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.houseId());
+            if (!event.isRemoval()) {
+                indexLocked(event.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 浏览数跨过 2 的幂时才调整该房源所有词条的权重
+    @EventListener
+    public void onPopularityChanged(HousePopularityChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.viewTotals().forEach((houseId, views) -> {
+                Map<String, String> terms = termsOfHouse.get(houseId);
+                Long current = weightOfHouse.get(houseId);
+                long updated = HouseViewCounter.suggestionWeight(views);
+                if (terms == null || current == null || current == updated) {
+                    return;
+                }
+                terms.forEach((term, display) -> adjust(term, display, updated - current));
+                weightOfHouse.put(houseId, updated);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexLocked(HouseListingSnapshot snapshot) {
+        if (snapshot.id() == null || snapshot.status() != ListingStatus.APPROVED) {
+            return;
+        }
+        Map<String, String> terms = new LinkedHashMap<>();
+        addTerm(terms, snapshot.title());
+        addTerm(terms, snapshot.address());
+        snapshot.keywords().forEach(keyword -> addTerm(terms, keyword));
+        if (terms.isEmpty()) {
+            return;
+        }
+        long weight = HouseViewCounter.suggestionWeight(viewCounter.views(snapshot.id()));
+        terms.forEach((term, display) -> adjust(term, display, weight));
+        termsOfHouse.put(snapshot.id(), terms);
+        weightOfHouse.put(snapshot.id(), weight);
+    }
+
+    private void removeLocked(Long houseId) {
+        Map<String, String> terms = termsOfHouse.remove(houseId);
+        Long weight = weightOfHouse.remove(houseId);
+        if (terms != null && weight != null) {
+            terms.forEach((term, display) -> adjust(term, display, -weight));
+        }
+    }
+
+    // 沿路径更新词条权重，再自底向上重算子树最大权重并剪掉已空的分支
+    private void adjust(String term, String display, long delta) {
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            Node next = node.child(term.charAt(i));
+            if (next == null) {
+                if (delta < 0) {
+                    return;
+                }
+                next = node.addChild(term.charAt(i));
+            }
+            node = next;
+            path[i + 1] = node;
+        }
+        node.weight = Math.max(0, node.weight + delta);
+        if (node.weight == 0) {
+            node.display = null;
+        } else if (node.display == null) {
+            node.display = display;
+        }
+        for (int depth = term.length(); depth >= 0; depth--) {
+            Node current = path[depth];
+            current.recomputeMax();
+            if (depth > 0 && current.maxWeight == 0) {
+                path[depth - 1].removeChild(term.charAt(depth - 1));
+            }
+        }
+    }
+
+    private static void addTerm(Map<String, String> terms, String text) {
+        if (text == null) {
+            return;
+        }
+        String display = text.trim();
+        if (display.isEmpty()) {
+            return;
+        }
+        if (display.length() > MAX_TERM_LENGTH) {
+            display = display.substring(0, MAX_TERM_LENGTH);
+        }
+        terms.putIfAbsent(normalize(display), display);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Candidate(Node node, long priority, boolean terminal) implements Comparable<Candidate> {
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Long.compare(other.priority, priority);
+        }
+    }
+
+    // 子节点以有序字符数组 + 节点数组保存，比 HashMap 更紧凑
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+        private long weight;
+        private long maxWeight;
+        private String display;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node addChild(char key) {
+            int insertAt = -Arrays.binarySearch(keys, 0, childCount, key) - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, keys.length * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            keys[insertAt] = key;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(keys, position + 1, keys, position, childCount - position - 1);
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        private void recomputeMax() {
+            long max = weight;
+            for (int i = 0; i < childCount; i++) {
+                max = Math.max(max, children[i].maxWeight);
+            }
+            maxWeight = max;
+        }
+
+        private void clear() {
+            keys = new char[0];
+            children = new Node[0];
+            childCount = 0;
+            weight = 0;
+            maxWeight = 0;
+            display = null;
+        }
+    }
+}
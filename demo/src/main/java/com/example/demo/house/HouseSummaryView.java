@@ -0,0 +1,37 @@
+package com.example.demo.house;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// 列表卡片所需的精简字段：不含描述、联系方式与审核信息，封面图与预定标记随后批量补齐
+public record HouseSummaryView(
+        Long id,
+        String title,
+        String address,
+        BigDecimal price,
+        BigDecimal area,
+        Integer floor,
+        LocalDate listingDate,
+        ListingStatus status,
+        String coverImageUrl,
+        boolean reservationActive,
+        boolean reservationOwnedByRequester
+) {
+
+    // 供 Criteria 构造表达式使用，只投影房源主表的列
+    public HouseSummaryView(Long id,
+                            String title,
+                            String address,
+                            BigDecimal price,
+                            BigDecimal area,
+                            Integer floor,
+                            LocalDate listingDate,
+                            ListingStatus status) {
+        this(id, title, address, price, area, floor, listingDate, status, null, false, false);
+    }
+
+    public HouseSummaryView complete(String coverImageUrl, boolean reservationActive, boolean reservationOwnedByRequester) {
+        return new HouseSummaryView(id, title, address, price, area, floor, listingDate, status,
+                coverImageUrl, reservationActive, reservationOwnedByRequester);
+    }
+}
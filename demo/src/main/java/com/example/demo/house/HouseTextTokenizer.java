@@ -0,0 +1,86 @@
+package com.example.demo.house;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+// 中文按字与二元组切分，英文与数字按连续词切分
+final class HouseTextTokenizer {
+
+    private HouseTextTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        scan(text.toLowerCase(Locale.ROOT), tokens, true);
+        return tokens;
+    }
+
+    static List<String> queryTerms(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return tokens;
+        }
+        scan(query.toLowerCase(Locale.ROOT), tokens, false);
+        return new ArrayList<>(new LinkedHashSet<>(tokens));
+    }
+
+    // 英文与数字按整词建索引，无法覆盖词内的部分匹配（如 apart 之于 apartment），含此类词元的查询由调用方退回 LIKE
+    static boolean containsWordTerms(String query) {
+        if (query == null) {
+            return false;
+        }
+        return query.codePoints().anyMatch(codePoint -> !isHan(codePoint) && Character.isLetterOrDigit(codePoint));
+    }
+
+    private static void scan(String text, List<String> tokens, boolean indexing) {
+        StringBuilder word = new StringBuilder();
+        List<String> hanRun = new ArrayList<>();
+        int offset = 0;
+        while (offset < text.length()) {
+            int codePoint = text.codePointAt(offset);
+            offset += Character.charCount(codePoint);
+            if (isHan(codePoint)) {
+                flushWord(word, tokens);
+                hanRun.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushHan(hanRun, tokens, indexing);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushHan(hanRun, tokens, indexing);
+            }
+        }
+        flushWord(word, tokens);
+        flushHan(hanRun, tokens, indexing);
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    // 建索引时同时保留单字与二元组，查询时连续两个以上汉字只用二元组以提高选择性
+    private static void flushHan(List<String> run, List<String> tokens, boolean indexing) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (run.size() == 1 || indexing) {
+            tokens.addAll(run);
+        }
+        for (int i = 0; i + 1 < run.size(); i++) {
+            tokens.add(run.get(i) + run.get(i + 1));
+        }
+        run.clear();
+    }
+
+    private static boolean isHan(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+}
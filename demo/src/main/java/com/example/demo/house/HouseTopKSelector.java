@@ -0,0 +1,97 @@
+package com.example.demo.house;
+
+import java.util.Arrays;
+
+// 固定容量的小顶堆，逐个喂入 (id, score) 只保留得分最高的 K 个，避免对全部命中排序
+final class HouseTopKSelector {
+
+    private final long[] ids;
+    private final float[] scores;
+    private int size;
+
+    HouseTopKSelector(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.ids = new long[capacity];
+        this.scores = new float[capacity];
+    }
+
+    void offer(long id, float score) {
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return;
+        }
+        if (ranksBelow(id, score, ids[0], scores[0])) {
+            return;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // 按得分降序（同分按 ID 升序）取出结果，调用后选择器不再可用
+    long[] drainDescending() {
+        int remaining = size;
+        while (remaining > 1) {
+            swap(0, --remaining);
+            siftDown(0, remaining);
+        }
+        long[] result = Arrays.copyOf(ids, size);
+        size = 0;
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksBelow(ids[index], scores[index], ids[parent], scores[parent])) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int limit) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < limit && ranksBelow(ids[left], scores[left], ids[smallest], scores[smallest])) {
+                smallest = left;
+            }
+            if (right < limit && ranksBelow(ids[right], scores[right], ids[smallest], scores[smallest])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    // 堆顶为“最差”元素：得分更低，或同分时 ID 更大
+    private static boolean ranksBelow(long id, float score, long otherId, float otherScore) {
+        if (score != otherScore) {
+            return score < otherScore;
+        }
+        return id > otherId;
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.house;
+
+import java.time.OffsetDateTime;
+
+// 条件请求只需要的房源字段：可见性判断与更新时间，不加载图片与标签集合
+public record HouseVersionStamp(
+        Long id,
+        ListingStatus status,
+        String sellerUsername,
+        OffsetDateTime updatedAt
+) {
+}
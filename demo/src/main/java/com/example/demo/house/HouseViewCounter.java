@@ -0,0 +1,188 @@
+package com.example.demo.house;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 房源浏览（详情页）与曝光（出现在列表结果中）计数：请求线程只对分段的 LongAdder 自增，
+// 后台定期把增量合并为一次 JDBC 批量 upsert 写入 house_view_stats，避免热门房源行上的更新竞争
+@Component
+public class HouseViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(HouseViewCounter.class);
+    private static final int FLUSH_BATCH_SIZE = 500;
+    private static final double RANKING_BOOST_FACTOR = 0.1;
+    private static final String UPSERT_SQL = """
+            INSERT INTO house_view_stats (house_id, view_count, impression_count, updated_at)
+            VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count),
+                                    impression_count = impression_count + VALUES(impression_count),
+                                    updated_at = VALUES(updated_at)
+            """;
+
+    private final HouseViewStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pendingImpressions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> flushedViews = new ConcurrentHashMap<>();
+    private final Map<Long, Long> flushedImpressions = new ConcurrentHashMap<>();
+    private final Set<Long> removedHouses = ConcurrentHashMap.newKeySet();
+
+    public HouseViewCounter(HouseViewStatsRepository statsRepository,
+                            JdbcTemplate jdbcTemplate,
+                            ApplicationEventPublisher eventPublisher) {
+        this.statsRepository = statsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // 在各内存索引重建之前载入已落库的累计数，联想词权重与排序加权可直接使用
+    @PostConstruct
+    public void loadTotals() {
+        for (HouseViewStats stats : statsRepository.findAll()) {
+            flushedViews.put(stats.getHouseId(), stats.getViewCount());
+            flushedImpressions.put(stats.getHouseId(), stats.getImpressionCount());
+        }
+    }
+
+    public void recordView(Long houseId) {
+        if (houseId != null) {
+            pendingViews.computeIfAbsent(houseId, id -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordImpressions(Collection<Long> houseIds) {
+        for (Long houseId : houseIds) {
+            if (houseId != null) {
+                pendingImpressions.computeIfAbsent(houseId, id -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    public long views(Long houseId) {
+        return flushedViews.getOrDefault(houseId, 0L) + pendingSum(pendingViews, houseId);
+    }
+
+    public long impressions(Long houseId) {
+        return flushedImpressions.getOrDefault(houseId, 0L) + pendingSum(pendingImpressions, houseId);
+    }
+
+    // 相关度排序的热度加权：按浏览数取对数，避免热门房源压过相关度本身
+    public float rankingBoost(long houseId) {
+        return (float) (1 + RANKING_BOOST_FACTOR * Math.log1p(views(houseId)));
+    }
+
+    // 联想词中每套房源的贡献权重：1 + floor(log2(浏览数))，只在跨过 2 的幂时变化，减少前缀树重算
+    public static long suggestionWeight(long views) {
+        return views <= 0 ? 1 : 64 - Long.numberOfLeadingZeros(views);
+    }
+
+    @Scheduled(fixedDelayString = "${app.house-views.flush-interval:PT30S}",
+            initialDelayString = "${app.house-views.flush-interval:PT30S}")
+    public synchronized void flush() {
+        purgeRemovedHouses();
+        Set<Long> houseIds = new HashSet<>(pendingViews.keySet());
+        houseIds.addAll(pendingImpressions.keySet());
+        List<long[]> rows = new ArrayList<>();
+        for (Long houseId : houseIds) {
+            long views = drain(pendingViews, houseId);
+            long impressions = drain(pendingImpressions, houseId);
+            if (views > 0 || impressions > 0) {
+                rows.add(new long[]{houseId, views, impressions});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows, FLUSH_BATCH_SIZE, (statement, row) -> {
+                statement.setLong(1, row[0]);
+                statement.setLong(2, row[1]);
+                statement.setLong(3, row[2]);
+                statement.setTimestamp(4, now);
+            });
+        } catch (DataAccessException ex) {
+            // 写入失败时把增量放回，下一轮再写
+            for (long[] row : rows) {
+                pendingViews.computeIfAbsent(row[0], id -> new LongAdder()).add(row[1]);
+                pendingImpressions.computeIfAbsent(row[0], id -> new LongAdder()).add(row[2]);
+            }
+            log.warn("房源浏览计数写入失败，{} 条增量将在下次重试：{}", rows.size(), ex.getMessage());
+            return;
+        }
+        Map<Long, Long> changedViews = new HashMap<>();
+        for (long[] row : rows) {
+            flushedImpressions.merge(row[0], row[2], Long::sum);
+            long total = flushedViews.merge(row[0], row[1], Long::sum);
+            if (row[1] > 0) {
+                changedViews.put(row[0], total);
+            }
+        }
+        if (!changedViews.isEmpty()) {
+            eventPublisher.publishEvent(new HousePopularityChangedEvent(Map.copyOf(changedViews)));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(HouseListingChangedEvent event) {
+        if (event.houseId() != null && event.isRemoval()) {
+            pendingViews.remove(event.houseId());
+            pendingImpressions.remove(event.houseId());
+            flushedViews.remove(event.houseId());
+            flushedImpressions.remove(event.houseId());
+            removedHouses.add(event.houseId());
+        }
+    }
+
+    // 已删除或归档的房源不再保留计数行，随下一次刷新批量删除
+    private void purgeRemovedHouses() {
+        if (removedHouses.isEmpty()) {
+            return;
+        }
+        List<Long> houseIds = new ArrayList<>(removedHouses);
+        try {
+            jdbcTemplate.batchUpdate("DELETE FROM house_view_stats WHERE house_id = ?", houseIds, FLUSH_BATCH_SIZE,
+                    (statement, houseId) -> statement.setLong(1, houseId));
+            houseIds.forEach(removedHouses::remove);
+        } catch (DataAccessException ex) {
+            log.warn("清理已删除房源的浏览计数失败：{}", ex.getMessage());
+        }
+    }
+
+    private static long pendingSum(Map<Long, LongAdder> pending, Long houseId) {
+        LongAdder adder = pending.get(houseId);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    // 只重置不移除，计数器随房源数量有界，避免移除与并发自增之间丢失计数
+    private static long drain(Map<Long, LongAdder> pending, Long houseId) {
+        LongAdder adder = pending.get(houseId);
+        return adder == null ? 0L : adder.sumThenReset();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.house;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// 稀疏字段集：与 SecondHandHouseView 的 JSON 字段一一对应。column 为 true 的字段映射到房源主表列，
+// 其余字段（图片、标签、脱敏与预定标记）在主查询之后按需批量补齐
+public enum HouseViewField {
+    ID("id", true),
+    TITLE("title", true),
+    ADDRESS("address", true),
+    LATITUDE("latitude", true),
+    LONGITUDE("longitude", true),
+    PRICE("price", true),
+    DOWN_PAYMENT("downPayment", true),
+    AREA("area", true),
+    DESCRIPTION("description", true),
+    SELLER_USERNAME("sellerUsername", true),
+    SELLER_NAME("sellerName", true),
+    CONTACT_NUMBER("contactNumber", true),
+    LISTING_DATE("listingDate", true),
+    IMAGE_URLS("imageUrls", false),
+    KEYWORDS("keywords", false),
+    FLOOR("floor", true),
+    STATUS("status", true),
+    REVIEWED_BY("reviewedBy", true),
+    REVIEW_MESSAGE("reviewMessage", true),
+    REVIEWED_AT("reviewedAt", true),
+    SENSITIVE_MASKED("sensitiveMasked", false),
+    RESERVATION_ACTIVE("reservationActive", false),
+    RESERVATION_OWNED_BY_REQUESTER("reservationOwnedByRequester", false);
+
+    private final String jsonName;
+    private final boolean column;
+
+    HouseViewField(String jsonName, boolean column) {
+        this.jsonName = jsonName;
+        this.column = column;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    // 列字段的实体属性名与 JSON 字段名相同
+    public String attribute() {
+        return column ? jsonName : null;
+    }
+
+    public boolean isColumn() {
+        return column;
+    }
+
+    // 解析逗号分隔的字段列表，忽略大小写与空白，未知字段直接报错
+    public static Set<HouseViewField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields 参数不能为空");
+        }
+        Set<HouseViewField> result = EnumSet.noneOf(HouseViewField.class);
+        for (String token : fields.split(",")) {
+            String name = token.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            result.add(fromJsonName(name));
+        }
+        if (result.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields 参数不能为空");
+        }
+        return result;
+    }
+
+    // 在完整响应的 ETag 上附加字段集掩码，不同字段集的响应互不匹配
+    public static String tagETag(String etag, Set<HouseViewField> fields) {
+        if (etag == null) {
+            return null;
+        }
+        long mask = 0L;
+        for (HouseViewField field : fields) {
+            mask |= 1L << field.ordinal();
+        }
+        return etag.substring(0, etag.length() - 1) + "-f" + Long.toHexString(mask) + "\"";
+    }
+
+    private static HouseViewField fromJsonName(String name) {
+        String normalized = name.toLowerCase(Locale.ROOT);
+        for (HouseViewField field : values()) {
+            if (field.jsonName.toLowerCase(Locale.ROOT).equals(normalized)) {
+                return field;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "不支持的字段: " + name);
+    }
+}
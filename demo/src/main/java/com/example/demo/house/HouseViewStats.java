@@ -0,0 +1,46 @@
+package com.example.demo.house;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+// 房源浏览与曝光累计数，由 HouseViewCounter 定期批量累加写入，不随每次浏览更新
+@Entity
+@Table(name = "house_view_stats")
+public class HouseViewStats {
+
+    @Id
+    @Column(name = "house_id")
+    private Long houseId;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    @Column(name = "impression_count", nullable = false)
+    private long impressionCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    protected HouseViewStats() {
+    }
+
+    public Long getHouseId() {
+        return houseId;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public long getImpressionCount() {
+        return impressionCount;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.house;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface HouseViewStatsRepository extends JpaRepository<HouseViewStats, Long> {
+}
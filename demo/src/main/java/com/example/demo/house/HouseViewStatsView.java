@@ -0,0 +1,19 @@
+package com.example.demo.house;
+
+public record HouseViewStatsView(
+        Long houseId,
+        String title,
+        ListingStatus status,
+        long views,
+        long impressions
+) {
+
+    // 供 JPQL 构造表达式只查询房源标题与状态，计数随后从内存计数器补齐
+    public HouseViewStatsView(Long houseId, String title, ListingStatus status) {
+        this(houseId, title, status, 0L, 0L);
+    }
+
+    public HouseViewStatsView withCounts(long views, long impressions) {
+        return new HouseViewStatsView(houseId, title, status, views, impressions);
+    }
+}
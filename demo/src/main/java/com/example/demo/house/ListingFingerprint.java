@@ -0,0 +1,38 @@
+package com.example.demo.house;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+// 重复房源指纹：同一卖家、规范化后标题与地址相同即视为同一房源，
+// 规则需与 V8 迁移中的回填 SQL 保持一致
+public final class ListingFingerprint {
+
+    private ListingFingerprint() {
+    }
+
+    public static String of(String sellerUsername, String title, String address) {
+        String seller = sellerUsername == null ? "" : sellerUsername.trim().toLowerCase(Locale.ROOT);
+        String normalizedTitle = normalize(title);
+        String normalizedAddress = normalize(address);
+        if (seller.isEmpty() || normalizedTitle.isEmpty() || normalizedAddress.isEmpty()) {
+            return null;
+        }
+        String source = seller + "\n" + normalizedTitle + "\n" + normalizedAddress;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replaceAll("\\s+", " ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -11,9 +11,11 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -68,20 +70,27 @@ public class SecondHandHouse {
     @Column(name = "seller_name", nullable = false)
     private String sellerName;
 
+    @Column(name = "listing_fingerprint", length = 64)
+    private String listingFingerprint;
+
     @Column(name = "contact_number", nullable = false)
     private String contactNumber;
 
     @Column(name = "listing_date", nullable = false)
     private LocalDate listingDate;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // 图片与标签按需加载，同一会话中访问任一房源的集合时按批次一次性加载最多 100 套房源的集合
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "second_hand_house_images", joinColumns = @JoinColumn(name = "house_id"))
+    @OrderColumn(name = "image_order")
     @Column(name = "image_url", length = 500)
+    @BatchSize(size = 100)
     private List<String> imageUrls = new ArrayList<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "second_hand_house_keywords", joinColumns = @JoinColumn(name = "house_id"))
     @Column(name = "keyword", length = 50)
+    @BatchSize(size = 100)
     private List<String> keywords = new ArrayList<>();
 
     @Column(name = "floor")
@@ -115,12 +124,14 @@ public class SecondHandHouse {
             status = ListingStatus.PENDING_REVIEW;
         }
         ensureInstallmentDefaults();
+        refreshListingFingerprint();
     }
 
     @PreUpdate
     public void onUpdate() {
         updatedAt = OffsetDateTime.now();
         ensureInstallmentDefaults();
+        refreshListingFingerprint();
     }
 
     public Long getId() {
@@ -196,6 +207,10 @@ public class SecondHandHouse {
         }
     }
 
+    private void refreshListingFingerprint() {
+        listingFingerprint = ListingFingerprint.of(sellerUsername, title, address);
+    }
+
     public BigDecimal getDownPayment() {
         return downPayment;
     }
@@ -224,6 +239,10 @@ public class SecondHandHouse {
         return sellerName;
     }
 
+    public String getListingFingerprint() {
+        return listingFingerprint;
+    }
+
     public String getSellerUsername() {
         return sellerUsername;
     }
@@ -1,7 +1,10 @@
 package com.example.demo.house;
 
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,12 +13,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/houses")
@@ -23,42 +35,257 @@ import java.util.List;
 public class SecondHandHouseController {
 
     private final SecondHandHouseService service;
+    private final HouseBulkImportService bulkImportService;
+    private final HouseChangeStream changeStream;
  
-    public SecondHandHouseController(SecondHandHouseService service) {
+    public SecondHandHouseController(SecondHandHouseService service,
+                                     HouseBulkImportService bulkImportService,
+                                     HouseChangeStream changeStream) {
         this.service = service;
+        this.bulkImportService = bulkImportService;
+        this.changeStream = changeStream;
     }
 
-    // 搜索房源列表，支持关键词、价格、面积等筛选
+    // 搜索房源列表，支持关键词、价格、面积等筛选；sort=relevance 时按关键词相关度返回前 limit 条；
+    // 房源集合未变化时按 If-None-Match 直接返回 304
     @GetMapping
     public List<SecondHandHouseView> list(@RequestParam(value = "keyword", required = false) String keyword,
                                           @RequestParam(value = "minPrice", required = false) java.math.BigDecimal minPrice,
                                           @RequestParam(value = "maxPrice", required = false) java.math.BigDecimal maxPrice,
                                           @RequestParam(value = "minArea", required = false) java.math.BigDecimal minArea,
                                           @RequestParam(value = "maxArea", required = false) java.math.BigDecimal maxArea,
-                                          @RequestParam(value = "requester", required = false) String requesterUsername) {
-        return service.search(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername);
+                                          @RequestParam(value = "requester", required = false) String requesterUsername,
+                                          @RequestParam(value = "sort", required = false) String sort,
+                                          @RequestParam(value = "limit", required = false) Integer limit,
+                                          WebRequest webRequest) {
+        String etag = service.searchETag(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername, sort, limit);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return service.search(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername, sort, limit);
     }
 
-    // 按 ID 查看房源详情，可附带请求人信息控制敏感字段
+    // 带 fields 参数时只查询并返回所列字段，如 fields=id,title,price,imageUrls；筛选、排序与 304 规则同上
+    @GetMapping(params = "fields")
+    public List<Map<String, Object>> listFields(@RequestParam(value = "keyword", required = false) String keyword,
+                                                @RequestParam(value = "minPrice", required = false) java.math.BigDecimal minPrice,
+                                                @RequestParam(value = "maxPrice", required = false) java.math.BigDecimal maxPrice,
+                                                @RequestParam(value = "minArea", required = false) java.math.BigDecimal minArea,
+                                                @RequestParam(value = "maxArea", required = false) java.math.BigDecimal maxArea,
+                                                @RequestParam(value = "requester", required = false) String requesterUsername,
+                                                @RequestParam(value = "sort", required = false) String sort,
+                                                @RequestParam(value = "limit", required = false) Integer limit,
+                                                @RequestParam("fields") String fields,
+                                                WebRequest webRequest) {
+        Set<HouseViewField> fieldSet = HouseViewField.parse(fields);
+        String etag = HouseViewField.tagETag(
+                service.searchETag(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername, sort, limit), fieldSet);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return service.searchFields(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername, sort, limit, fieldSet);
+    }
+
+    // 列表卡片的精简数据：标题、价格、面积、封面图与预定标记，按 ID 升序，通过 afterId 继续翻页
+    @GetMapping("/summaries")
+    public List<HouseSummaryView> summaries(@RequestParam(value = "keyword", required = false) String keyword,
+                                            @RequestParam(value = "minPrice", required = false) java.math.BigDecimal minPrice,
+                                            @RequestParam(value = "maxPrice", required = false) java.math.BigDecimal maxPrice,
+                                            @RequestParam(value = "minArea", required = false) java.math.BigDecimal minArea,
+                                            @RequestParam(value = "maxArea", required = false) java.math.BigDecimal maxArea,
+                                            @RequestParam(value = "requester", required = false) String requesterUsername,
+                                            @RequestParam(value = "afterId", required = false) Long afterId,
+                                            @RequestParam(value = "limit", required = false) Integer limit) {
+        return service.searchSummaries(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername, afterId, limit);
+    }
+
+    // 搜索房源并同时返回价格、面积、楼层与标签分面计数
+    @GetMapping("/faceted")
+    public HouseFacetedSearchResponse faceted(@RequestParam(value = "keyword", required = false) String keyword,
+                                              @RequestParam(value = "minPrice", required = false) java.math.BigDecimal minPrice,
+                                              @RequestParam(value = "maxPrice", required = false) java.math.BigDecimal maxPrice,
+                                              @RequestParam(value = "minArea", required = false) java.math.BigDecimal minArea,
+                                              @RequestParam(value = "maxArea", required = false) java.math.BigDecimal maxArea,
+                                              @RequestParam(value = "requester", required = false) String requesterUsername,
+                                              @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return service.searchWithFacets(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername, limit);
+    }
+
+    // 键集分页查询房源，按价格、面积、挂牌日期或更新时间排序，通过 nextCursor 继续翻页
+    @GetMapping("/page")
+    public HousePageResponse page(@RequestParam(value = "keyword", required = false) String keyword,
+                                  @RequestParam(value = "minPrice", required = false) java.math.BigDecimal minPrice,
+                                  @RequestParam(value = "maxPrice", required = false) java.math.BigDecimal maxPrice,
+                                  @RequestParam(value = "minArea", required = false) java.math.BigDecimal minArea,
+                                  @RequestParam(value = "maxArea", required = false) java.math.BigDecimal maxArea,
+                                  @RequestParam(value = "requester", required = false) String requesterUsername,
+                                  @RequestParam(value = "sort", required = false) String sort,
+                                  @RequestParam(value = "direction", defaultValue = "desc") String direction,
+                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "排序方向只能是 asc 或 desc"));
+        return service.searchPage(keyword, minPrice, maxPrice, minArea, maxArea, requesterUsername,
+                HouseSortField.fromParameter(sort), sortDirection, cursor, size);
+    }
+
+    // 房源变更实时推送（SSE）：上架、更新、预定变化、售出与下架；断线重连时按 Last-Event-ID 补发错过的事件
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeStream.subscribe(lastEventId);
+    }
+
+    // 搜索框联想：按前缀返回热门的房源标题、地址与标签
+    @GetMapping("/suggest")
+    public List<HouseSuggestion> suggest(@RequestParam("prefix") String prefix,
+                                         @RequestParam(value = "limit", defaultValue = "8") int limit) {
+        return service.suggest(prefix, limit);
+    }
+
+    // 查询指定坐标周边半径内的已上架房源，按距离由近到远返回
+    @GetMapping("/nearby")
+    public List<HouseLocationView> nearby(@RequestParam("lat") double latitude,
+                                          @RequestParam("lng") double longitude,
+                                          @RequestParam(value = "radiusKm", defaultValue = "3") double radiusKm,
+                                          @RequestParam(value = "limit", required = false) Integer limit) {
+        return service.findNearby(latitude, longitude, radiusKm, limit);
+    }
+
+    // 查询地图可视范围内的已上架房源
+    @GetMapping("/within-bounds")
+    public List<HouseLocationView> withinBounds(@RequestParam("south") double south,
+                                                @RequestParam("west") double west,
+                                                @RequestParam("north") double north,
+                                                @RequestParam("east") double east,
+                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        return service.findWithinBounds(south, west, north, east, limit);
+    }
+
+    // 按地图视口与缩放级别返回房源聚合点（数量、中心点、最低价与中位价）
+    @GetMapping("/clusters")
+    public List<HouseClusterView> clusters(@RequestParam("south") double south,
+                                           @RequestParam("west") double west,
+                                           @RequestParam("north") double north,
+                                           @RequestParam("east") double east,
+                                           @RequestParam("zoom") int zoom) {
+        return service.findClusters(south, west, north, east, zoom);
+    }
+
+    // 查看列表搜索缓存的命中统计（仅管理员）
+    @GetMapping("/search-cache/stats")
+    public HouseSearchCacheStats searchCacheStats(@RequestParam("requester") String requesterUsername) {
+        return service.searchCacheStats(requesterUsername);
+    }
+
+    // 卖家看板：查看自己各房源的浏览与曝光数，管理员可通过 seller 指定卖家
+    @GetMapping("/view-stats")
+    public List<HouseViewStatsView> viewStats(@RequestParam("requester") String requesterUsername,
+                                              @RequestParam(value = "seller", required = false) String sellerUsername) {
+        return service.viewStatsForSeller(requesterUsername, sellerUsername);
+    }
+
+    // 管理员审核队列：待审核房源按提交时间先后排列，通过 nextCursor 继续翻页
+    @GetMapping("/moderation-queue")
+    public HouseModerationPage moderationQueue(@RequestParam("requester") String requesterUsername,
+                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "size", defaultValue = "20") int size) {
+        return service.moderationQueue(requesterUsername, cursor, size);
+    }
+
+    // 管理员批量审核：同一结论应用于多套待审核房源，已被处理或不存在的房源列为跳过
+    @PatchMapping("/review")
+    public HouseBulkReviewResult reviewBatch(@Valid @RequestBody HouseBulkReviewRequest request) {
+        return service.reviewBatch(request.ids(), request.status(), request.message(), request.reviewerUsername());
+    }
+
+    // 管理员手动执行过期房源归档，dryRun=true 时只统计不归档
+    @PostMapping("/cleanup")
+    public List<HouseCleanupReport> runCleanup(@RequestParam("requester") String requesterUsername,
+                                               @RequestParam(value = "dryRun", defaultValue = "true") boolean dryRun) {
+        return service.runListingCleanup(requesterUsername, dryRun);
+    }
+
+    // 查看最近一次房源清理的执行统计
+    @GetMapping("/cleanup/reports")
+    public List<HouseCleanupReport> cleanupReports(@RequestParam("requester") String requesterUsername) {
+        return service.lastCleanupReports(requesterUsername);
+    }
+
+    // 按多个 ID 批量查看房源详情（收藏、对比、最近浏览），按传入顺序返回，不存在或不可见的房源略过
+    @GetMapping("/batch")
+    public List<SecondHandHouseView> batch(@RequestParam("ids") List<Long> ids,
+                                           @RequestParam(value = "requester", required = false) String requesterUsername) {
+        return service.viewByIds(ids, requesterUsername);
+    }
+
+    // 按 ID 查看房源详情，可附带请求人信息控制敏感字段；内容未变化时按 If-None-Match 直接返回 304，
+    // 浏览数在条件判断之前计入，命中缓存的 304 同样算一次浏览
     @GetMapping("/{id}")
     public SecondHandHouseView get(@PathVariable Long id,
-                                   @RequestParam(value = "requester", required = false) String requesterUsername) {
+                                   @RequestParam(value = "requester", required = false) String requesterUsername,
+                                   WebRequest webRequest) {
+        String etag = service.detailETag(id, requesterUsername);
+        if (etag != null) {
+            service.recordView(id);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+        }
         return service.viewById(id, requesterUsername);
     }
 
+    // 详情页“相似房源”：按价格、面积、单价、楼层、位置与标签推荐最接近的已上架房源
+    @GetMapping("/{id}/similar")
+    public List<HouseSimilarView> similar(@PathVariable Long id,
+                                          @RequestParam(value = "limit", required = false) Integer limit) {
+        return service.findSimilar(id, limit);
+    }
+
+    // 按 ID 查看房源详情的指定字段，只查询所需的列
+    @GetMapping(value = "/{id}", params = "fields")
+    public Map<String, Object> getFields(@PathVariable Long id,
+                                         @RequestParam(value = "requester", required = false) String requesterUsername,
+                                         @RequestParam("fields") String fields,
+                                         WebRequest webRequest) {
+        Set<HouseViewField> fieldSet = HouseViewField.parse(fields);
+        String etag = HouseViewField.tagETag(service.detailETag(id, requesterUsername), fieldSet);
+        if (etag != null) {
+            service.recordView(id);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+        }
+        return service.viewFieldsById(id, requesterUsername, fieldSet);
+    }
+
+    // 管理员查看疑似重复房源
+    @GetMapping("/{id}/duplicates")
+    public List<HouseDuplicateCandidate> duplicates(@PathVariable Long id,
+                                                    @RequestParam("requester") String requesterUsername) {
+        return service.findNearDuplicates(id, requesterUsername);
+    }
+
     // 创建新的房源记录
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public SecondHandHouseView create(@Valid @RequestBody SecondHandHouseRequest request) {
-        SecondHandHouse house = service.create(request.toEntity());
-        return SecondHandHouseView.fromEntity(house, false);
+        return service.createView(request.toEntity());
+    }
+
+    // 中介批量导入房源：请求体为 CSV（首行表头）或 NDJSON（每行一个房源 JSON），返回逐行导入结果
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public HouseImportReport importListings(@RequestParam("seller") String sellerUsername,
+                                            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) {
+        HouseImportFormat format = HouseImportFormat.fromContentType(contentType);
+        return bulkImportService.importListings(sellerUsername, format,
+                new InputStreamReader(body, StandardCharsets.UTF_8));
     }
 
     // 更新指定房源的信息
     @PutMapping("/{id}")
     public SecondHandHouseView update(@PathVariable Long id, @Valid @RequestBody SecondHandHouseRequest request) {
-        SecondHandHouse house = service.update(id, request.toEntity());
-        return SecondHandHouseView.fromEntity(house, false);
+        return service.updateView(id, request.toEntity());
     }
 
     // 删除房源，需校验请求人身份
@@ -68,9 +295,9 @@ public class SecondHandHouseController {
         service.delete(id, requesterUsername);
     }
 
-    // 审核房源，上架或驳回时保存审核意见
+    // 审核房源，上架或驳回时保存审核意见；审核通过时一并返回疑似重复的房源 ID
     @PatchMapping("/{id}/review")
-    public SecondHandHouseView review(@PathVariable Long id, @Valid @RequestBody SecondHandHouseReviewRequest request) {
+    public HouseReviewResult review(@PathVariable Long id, @Valid @RequestBody SecondHandHouseReviewRequest request) {
         return service.review(id, request.status(), request.message(), request.reviewerUsername());
     }
 }
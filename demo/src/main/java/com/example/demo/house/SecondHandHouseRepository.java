@@ -1,14 +1,31 @@
 package com.example.demo.house;
 
+import com.example.demo.order.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface SecondHandHouseRepository extends JpaRepository<SecondHandHouse, Long> {
+public interface SecondHandHouseRepository extends JpaRepository<SecondHandHouse, Long>,
+        JpaSpecificationExecutor<SecondHandHouse>, SecondHandHouseRepositoryCustom {
+
+    // 详情页：图片随房源一次连接查询取回；标签与图片同为 List，不能在同一查询中一起连接抓取，标签按批次加载
+    @EntityGraph(attributePaths = "imageUrls")
+    Optional<SecondHandHouse> findDetailedById(Long id);
+
+    @EntityGraph(attributePaths = "imageUrls")
+    List<SecondHandHouse> findDetailedByIdIn(Collection<Long> ids);
 
     List<SecondHandHouse> findByListingDateBefore(LocalDate listingDate);
 
@@ -16,7 +33,192 @@ public interface SecondHandHouseRepository extends JpaRepository<SecondHandHouse
 
     List<SecondHandHouse> findBySellerUsernameIgnoreCase(String sellerUsername);
 
+    @Query("""
+            select h.listingFingerprint from SecondHandHouse h
+            where h.listingFingerprint in :fingerprints
+              and h.status <> :excludedStatus
+            """)
+    List<String> findExistingFingerprints(@Param("fingerprints") Collection<String> fingerprints,
+                                          @Param("excludedStatus") ListingStatus excludedStatus);
+
+    @Query("""
+            select new com.example.demo.house.HouseImageRef(h.id, i)
+            from SecondHandHouse h join h.imageUrls i
+            where h.id in :ids
+            """)
+    List<HouseImageRef> findImageRefs(@Param("ids") Collection<Long> ids);
+
+    // 每套房源只取封面，即卖家上传的第一张图（序号 0），与详情页图片顺序一致，且每套房源只返回一行
+    @Query("""
+            select new com.example.demo.house.HouseImageRef(h.id, i)
+            from SecondHandHouse h join h.imageUrls i
+            where h.id in :ids
+              and index(i) = 0
+            """)
+    List<HouseImageRef> findCoverRefs(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.example.demo.house.HouseKeywordRef(h.id, k)
+            from SecondHandHouse h join h.keywords k
+            where h.id in :ids
+            """)
+    List<HouseKeywordRef> findKeywordRefs(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.example.demo.house.HouseVersionStamp(h.id, h.status, h.sellerUsername, h.updatedAt)
+            from SecondHandHouse h
+            where h.id = :id
+            """)
+    Optional<HouseVersionStamp> findVersionStampById(@Param("id") Long id);
+
+    @Query("""
+            select new com.example.demo.house.HouseViewStatsView(h.id, h.title, h.status)
+            from SecondHandHouse h
+            where lower(h.sellerUsername) = lower(:sellerUsername)
+            """)
+    List<HouseViewStatsView> findViewStatsHeadsBySeller(@Param("sellerUsername") String sellerUsername);
+
+    // 审核队列：由 (status, created_at, id) 索引直接按序取出，不扫描其余状态的房源
+    @Query("""
+            select new com.example.demo.house.HouseModerationItem(
+                h.id, h.title, h.address, h.price, h.area, h.sellerUsername, h.createdAt)
+            from SecondHandHouse h
+            where h.status = :status
+            order by h.createdAt, h.id
+            """)
+    List<HouseModerationItem> findModerationQueue(@Param("status") ListingStatus status, Limit limit);
+
+    @Query("""
+            select new com.example.demo.house.HouseModerationItem(
+                h.id, h.title, h.address, h.price, h.area, h.sellerUsername, h.createdAt)
+            from SecondHandHouse h
+            where h.status = :status
+              and (h.createdAt > :createdAt or (h.createdAt = :createdAt and h.id > :afterId))
+            order by h.createdAt, h.id
+            """)
+    List<HouseModerationItem> findModerationQueueAfter(@Param("status") ListingStatus status,
+                                                       @Param("createdAt") OffsetDateTime createdAt,
+                                                       @Param("afterId") long afterId,
+                                                       Limit limit);
+
+    @Query("""
+            select h.id from SecondHandHouse h
+            where h.id in :ids
+              and h.status = :status
+            order by h.id
+            """)
+    List<Long> filterIdsByStatus(@Param("ids") Collection<Long> ids, @Param("status") ListingStatus status);
+
+    // 批量审核：条件中再次限定待审核状态，避免覆盖并发审核的结果
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update SecondHandHouse h
+            set h.status = :status,
+                h.reviewedBy = :reviewedBy,
+                h.reviewMessage = :reviewMessage,
+                h.reviewedAt = :reviewedAt,
+                h.updatedAt = :reviewedAt
+            where h.id in :ids
+              and h.status = :expectedStatus
+            """)
+    int updateReviewStatus(@Param("ids") Collection<Long> ids,
+                           @Param("expectedStatus") ListingStatus expectedStatus,
+                           @Param("status") ListingStatus status,
+                           @Param("reviewedBy") String reviewedBy,
+                           @Param("reviewMessage") String reviewMessage,
+                           @Param("reviewedAt") OffsetDateTime reviewedAt);
+
+    boolean existsByListingFingerprintAndStatusNot(String listingFingerprint, ListingStatus status);
+
+    boolean existsByListingFingerprintAndStatusNotAndIdNot(String listingFingerprint, ListingStatus status, Long id);
+
     List<SecondHandHouse> findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ListingStatus status);
 
     List<SecondHandHouse> findByStatusAndUpdatedAtBefore(ListingStatus status, OffsetDateTime updatedAt);
+
+    @Query("""
+            select h.id from SecondHandHouse h
+            where h.status = :status
+              and h.listingDate < :cutoff
+              and h.id > :afterId
+            order by h.id
+            """)
+    List<Long> findIdsListedBefore(@Param("status") ListingStatus status,
+                                   @Param("cutoff") LocalDate cutoff,
+                                   @Param("afterId") long afterId,
+                                   Limit limit);
+
+    @Query("""
+            select h.id from SecondHandHouse h
+            where h.status = :status
+              and h.updatedAt < :cutoff
+              and h.id > :afterId
+            order by h.id
+            """)
+    List<Long> findIdsUpdatedBefore(@Param("status") ListingStatus status,
+                                    @Param("cutoff") OffsetDateTime cutoff,
+                                    @Param("afterId") long afterId,
+                                    Limit limit);
+
+    // 到期任务触发时在数据库中复核：只保留状态未变且确已超过期限的房源
+    @Query("""
+            select h.id from SecondHandHouse h
+            where h.id in :ids
+              and h.status = :status
+              and h.listingDate < :cutoff
+            order by h.id
+            """)
+    List<Long> filterIdsListedBefore(@Param("ids") Collection<Long> ids,
+                                     @Param("status") ListingStatus status,
+                                     @Param("cutoff") LocalDate cutoff);
+
+    @Query("""
+            select h.id from SecondHandHouse h
+            where h.id in :ids
+              and h.status = :status
+              and h.updatedAt < :cutoff
+            order by h.id
+            """)
+    List<Long> filterIdsUpdatedBefore(@Param("ids") Collection<Long> ids,
+                                      @Param("status") ListingStatus status,
+                                      @Param("cutoff") OffsetDateTime cutoff);
+
+    // 复核未通过的到期任务按数据库中的状态与更新时间重新排期；已归档的房源不在主表中，不会返回
+    @Query("""
+            select new com.example.demo.house.HouseVersionStamp(h.id, h.status, h.sellerUsername, h.updatedAt)
+            from SecondHandHouse h
+            where h.id in :ids
+              and h.status = :status
+            """)
+    List<HouseVersionStamp> findVersionStamps(@Param("ids") Collection<Long> ids,
+                                              @Param("status") ListingStatus status);
+
+    // 反连接：排除仍有进行中订单、待卖家退款或待管理员复核付款的房源，其余订单随房源一起归档
+    @Query("""
+            select h.id from SecondHandHouse h
+            where h.id in :ids
+              and not exists (
+                  select o.id from HouseOrder o
+                  where o.house.id = h.id
+                    and (o.status in :openStatuses
+                         or o.sellerRepayRequired = true
+                         or (o.status = :paidStatus and o.adminReviewed = false))
+              )
+            order by h.id
+            """)
+    List<Long> findIdsWithoutOpenOrders(@Param("ids") Collection<Long> ids,
+                                        @Param("openStatuses") Collection<OrderStatus> openStatuses,
+                                        @Param("paidStatus") OrderStatus paidStatus);
+
+    @Modifying
+    @Query(value = "DELETE FROM second_hand_house_images WHERE house_id IN (:ids)", nativeQuery = true)
+    int deleteImagesByHouseIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM second_hand_house_keywords WHERE house_id IN (:ids)", nativeQuery = true)
+    int deleteKeywordsByHouseIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from SecondHandHouse h where h.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,14 @@
+package com.example.demo.house;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SecondHandHouseRepositoryCustom {
+
+    List<HouseSummaryView> findSummaries(Specification<SecondHandHouse> specification, int limit);
+
+    List<Tuple> findColumns(Specification<SecondHandHouse> specification, Collection<String> attributes, Integer limit);
+}
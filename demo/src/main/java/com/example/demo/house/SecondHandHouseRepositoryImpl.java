@@ -0,0 +1,72 @@
+package com.example.demo.house;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+class SecondHandHouseRepositoryImpl implements SecondHandHouseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 构造表达式只查询卡片所需的列，按 ID 升序取前 limit 条，不触发图片与标签集合的加载
+    @Override
+    public List<HouseSummaryView> findSummaries(Specification<SecondHandHouse> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<HouseSummaryView> query = cb.createQuery(HouseSummaryView.class);
+        Root<SecondHandHouse> root = query.from(SecondHandHouse.class);
+        query.select(cb.construct(HouseSummaryView.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("address"),
+                root.get("price"),
+                root.get("area"),
+                root.get("floor"),
+                root.get("listingDate"),
+                root.get("status")));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // 稀疏字段：只选择给定属性对应的列，每列以属性名为别名，按 ID 升序；limit 为空时不限条数
+    @Override
+    public List<Tuple> findColumns(Specification<SecondHandHouse> specification,
+                                   Collection<String> attributes,
+                                   Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<SecondHandHouse> root = query.from(SecondHandHouse.class);
+        List<Selection<?>> selections = attributes.stream()
+                .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                .toList();
+        query.multiselect(selections);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -3,39 +3,102 @@ package com.example.demo.house;
 import com.example.demo.auth.UserAccount;
 import com.example.demo.auth.UserAccountRepository;
 import com.example.demo.auth.UserRole;
+import com.example.demo.common.MaskingUtils;
 import com.example.demo.order.HouseOrder;
 import com.example.demo.order.HouseOrderRepository;
+import com.example.demo.order.HouseReservationSnapshot;
 import com.example.demo.order.OrderStatus;
+import jakarta.persistence.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 @Transactional
 public class SecondHandHouseService {
 
     private static final Logger log = LoggerFactory.getLogger(SecondHandHouseService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_RELEVANCE_LIMIT = 20;
+    private static final int DEFAULT_SUMMARY_LIMIT = 20;
+    private static final String SORT_RELEVANCE = "relevance";
+    private static final int RESERVATION_LOOKUP_BATCH_SIZE = 500;
+    private static final int KEYWORD_HIT_BATCH_SIZE = 500;
+    private static final int BULK_REVIEW_BATCH_SIZE = 100;
+    private static final int DEFAULT_LOCATION_LIMIT = 200;
+    private static final int MAX_LOCATION_LIMIT = 1000;
+    private static final double MAX_NEARBY_RADIUS_KM = 50;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int DEFAULT_SIMILAR_LIMIT = 6;
+    private static final int MAX_SIMILAR_LIMIT = 20;
 
     private final SecondHandHouseRepository repository;
     private final UserAccountRepository userAccountRepository;
     private final HouseOrderRepository houseOrderRepository;
+    private final HouseKeywordIndex keywordIndex;
+    private final HouseGeoIndex geoIndex;
+    private final HouseClusterIndex clusterIndex;
+    private final HouseSearchCache searchCache;
+    private final HouseSuggestionIndex suggestionIndex;
+    private final HouseNearDuplicateIndex nearDuplicateIndex;
+    private final HouseSimilarityIndex similarityIndex;
+    private final HouseListingCleanupService cleanupService;
+    private final HouseViewCounter viewCounter;
+    private final ApplicationEventPublisher eventPublisher;
+
     public SecondHandHouseService(SecondHandHouseRepository repository,
                                   UserAccountRepository userAccountRepository,
-                                  HouseOrderRepository houseOrderRepository) {
+                                  HouseOrderRepository houseOrderRepository,
+                                  HouseKeywordIndex keywordIndex,
+                                  HouseGeoIndex geoIndex,
+                                  HouseClusterIndex clusterIndex,
+                                  HouseSearchCache searchCache,
+                                  HouseSuggestionIndex suggestionIndex,
+                                  HouseNearDuplicateIndex nearDuplicateIndex,
+                                  HouseSimilarityIndex similarityIndex,
+                                  HouseListingCleanupService cleanupService,
+                                  HouseViewCounter viewCounter,
+                                  ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
         this.userAccountRepository = userAccountRepository;
         this.houseOrderRepository = houseOrderRepository;
+        this.keywordIndex = keywordIndex;
+        this.geoIndex = geoIndex;
+        this.clusterIndex = clusterIndex;
+        this.searchCache = searchCache;
+        this.suggestionIndex = suggestionIndex;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.similarityIndex = similarityIndex;
+        this.cleanupService = cleanupService;
+        this.viewCounter = viewCounter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -49,26 +112,441 @@ public class SecondHandHouseService {
                                             BigDecimal maxPrice,
                                             BigDecimal minArea,
                                             BigDecimal maxArea,
-                                            String requesterUsername) {
+                                            String requesterUsername,
+                                            String sort,
+                                            Integer limit) {
+        UserAccount requester = resolveRequester(requesterUsername);
+        if (sort != null && !sort.isBlank() && !SORT_RELEVANCE.equalsIgnoreCase(sort.trim())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "列表排序方式仅支持 relevance");
+        }
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "返回条数必须为正数");
+        }
+        String normalized = keyword == null ? null : keyword.trim().toLowerCase(Locale.ROOT);
+        boolean byRelevance = isRelevanceSearch(normalized, sort);
+        String cacheKey = searchCacheKey(requester, normalized, minPrice, maxPrice, minArea, maxArea, sort, limit);
+        HouseSearchCache.CachedSearch cached = searchCache.get(cacheKey);
+        if (cached != null) {
+            List<SecondHandHouseView> cachedViews = cached.viewsFor(requester == null ? null : requester.getUsername());
+            recordImpressions(cachedViews);
+            return cachedViews;
+        }
+        long version = searchCache.currentVersion();
+        List<SecondHandHouse> houses = null;
+        if (byRelevance && keywordIndex.isReady()) {
+            HouseKeywordIndex.KeywordMatches matches = keywordIndex.scoredSearch(normalized,
+                    snapshotFilter(requester, minPrice, maxPrice, minArea, maxArea));
+            if (matches != null) {
+                int topK = limit == null ? DEFAULT_RELEVANCE_LIMIT : Math.min(limit, MAX_PAGE_SIZE);
+                houses = loadHits(rankByRelevance(matches, topK),
+                        searchFilters(requester, minPrice, maxPrice, minArea, maxArea));
+            }
+        }
+        if (houses == null) {
+            List<HouseListingSnapshot> hits = keywordHits(keyword, requester, minPrice, maxPrice, minArea, maxArea);
+            if (hits != null) {
+                houses = loadHits(hitIds(hits, null, limit == null ? Integer.MAX_VALUE : Math.min(limit, MAX_PAGE_SIZE)),
+                        searchFilters(requester, minPrice, maxPrice, minArea, maxArea));
+            } else {
+                Specification<SecondHandHouse> specification =
+                        buildSearchSpecification(requester, keyword, minPrice, maxPrice, minArea, maxArea);
+                Sort byId = Sort.by(Sort.Direction.ASC, "id");
+                houses = limit == null
+                        ? repository.findAll(specification, byId)
+                        : repository.findBy(specification, query -> query.sortBy(byId).limit(Math.min(limit, MAX_PAGE_SIZE)).all());
+            }
+        }
+        Map<Long, String> reservationHolders = resolveReservationHolders(houses);
+        List<SecondHandHouseView> views = houses.stream()
+                .map(house -> buildViewForRequester(house, requester, reservationHolders))
+                .toList();
+        searchCache.put(cacheKey, version, views, reservationHolders);
+        recordImpressions(views);
+        return views;
+    }
+
+    // 稀疏字段列表：筛选与排序规则同 search，但只查询 fields 所需的列，图片、标签与预定状态仅在请求时批量补齐
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchFields(String keyword,
+                                                  BigDecimal minPrice,
+                                                  BigDecimal maxPrice,
+                                                  BigDecimal minArea,
+                                                  BigDecimal maxArea,
+                                                  String requesterUsername,
+                                                  String sort,
+                                                  Integer limit,
+                                                  Set<HouseViewField> fields) {
+        UserAccount requester = resolveRequester(requesterUsername);
+        if (sort != null && !sort.isBlank() && !SORT_RELEVANCE.equalsIgnoreCase(sort.trim())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "列表排序方式仅支持 relevance");
+        }
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "返回条数必须为正数");
+        }
+        String normalized = keyword == null ? null : keyword.trim().toLowerCase(Locale.ROOT);
+        List<String> attributes = selectedAttributes(fields);
+        List<Tuple> rows = null;
+        if (isRelevanceSearch(normalized, sort) && keywordIndex.isReady()) {
+            HouseKeywordIndex.KeywordMatches matches = keywordIndex.scoredSearch(normalized,
+                    snapshotFilter(requester, minPrice, maxPrice, minArea, maxArea));
+            if (matches != null) {
+                int topK = limit == null ? DEFAULT_RELEVANCE_LIMIT : Math.min(limit, MAX_PAGE_SIZE);
+                List<Long> rankedIds = rankByRelevance(matches, topK);
+                rows = rankedIds.isEmpty() ? List.of() : orderByIds(repository.findColumns(
+                        searchFilters(requester, minPrice, maxPrice, minArea, maxArea)
+                                .and(SecondHandHouseSpecifications.idIn(rankedIds)),
+                        attributes, null), rankedIds);
+            }
+        }
+        if (rows == null) {
+            List<HouseListingSnapshot> hits = keywordHits(keyword, requester, minPrice, maxPrice, minArea, maxArea);
+            if (hits != null) {
+                Specification<SecondHandHouse> filters = searchFilters(requester, minPrice, maxPrice, minArea, maxArea);
+                rows = loadInBatches(hitIds(hits, null, limit == null ? Integer.MAX_VALUE : Math.min(limit, MAX_PAGE_SIZE)),
+                        batch -> repository.findColumns(filters.and(SecondHandHouseSpecifications.idIn(batch)),
+                                attributes, null));
+            } else {
+                rows = repository.findColumns(
+                        buildSearchSpecification(requester, keyword, minPrice, maxPrice, minArea, maxArea),
+                        attributes, limit == null ? null : Math.min(limit, MAX_PAGE_SIZE));
+            }
+        }
+        List<Map<String, Object>> result = buildFieldMaps(rows, fields, requester);
+        viewCounter.recordImpressions(rows.stream().map(row -> row.get("id", Long.class)).toList());
+        return result;
+    }
+
+    // 列表 ETag：由房源集合版本号、查询条件与请求人推导，条件不合法时返回 null 交由正常流程报错
+    @Transactional(readOnly = true)
+    public String searchETag(String keyword,
+                             BigDecimal minPrice,
+                             BigDecimal maxPrice,
+                             BigDecimal minArea,
+                             BigDecimal maxArea,
+                             String requesterUsername,
+                             String sort,
+                             Integer limit) {
+        if ((sort != null && !sort.isBlank() && !SORT_RELEVANCE.equalsIgnoreCase(sort.trim()))
+                || (limit != null && limit <= 0)) {
+            return null;
+        }
         UserAccount requester = resolveRequester(requesterUsername);
         String normalized = keyword == null ? null : keyword.trim().toLowerCase(Locale.ROOT);
-        return repository.findAll().stream()
-                .filter(house -> isVisibleToRequester(house, requester))
-                .filter(house -> filterByKeyword(house, normalized))
-                .filter(house -> filterByRange(house.getPrice(), minPrice, maxPrice))
-                .filter(house -> filterByRange(house.getArea(), minArea, maxArea))
-                .map(house -> buildViewForRequester(house, requester))
+        String cacheKey = searchCacheKey(requester, normalized, minPrice, maxPrice, minArea, maxArea, sort, limit);
+        // 结果中的“本人预定”标记因人而异，请求人用户名也参与计算
+        String owner = requester == null ? "" : requester.getUsername().toLowerCase(Locale.ROOT);
+        return "\"l" + Long.toHexString(searchCache.currentVersion())
+                + "-" + Integer.toHexString(cacheKey.hashCode())
+                + "-" + Integer.toHexString(owner.hashCode()) + "\"";
+    }
+
+    @Transactional(readOnly = true)
+    public HouseSearchCacheStats searchCacheStats(String requesterUsername) {
+        requireAdmin(requesterUsername);
+        return searchCache.stats();
+    }
+
+    // 列表卡片：投影查询主表列，再各用一次批量查询补齐封面图与预定状态，不加载描述与集合；afterId 用于按 ID 继续翻页
+    @Transactional(readOnly = true)
+    public List<HouseSummaryView> searchSummaries(String keyword,
+                                                  BigDecimal minPrice,
+                                                  BigDecimal maxPrice,
+                                                  BigDecimal minArea,
+                                                  BigDecimal maxArea,
+                                                  String requesterUsername,
+                                                  Long afterId,
+                                                  Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "返回条数必须为正数");
+        }
+        UserAccount requester = resolveRequester(requesterUsername);
+        int resultLimit = limit == null ? DEFAULT_SUMMARY_LIMIT : Math.min(limit, MAX_PAGE_SIZE);
+        List<HouseListingSnapshot> hits = keywordHits(keyword, requester, minPrice, maxPrice, minArea, maxArea);
+        List<HouseSummaryView> rows;
+        if (hits != null) {
+            List<Long> pageIds = hitIds(hits, afterId, resultLimit);
+            rows = pageIds.isEmpty() ? List.of() : repository.findSummaries(
+                    searchFilters(requester, minPrice, maxPrice, minArea, maxArea)
+                            .and(SecondHandHouseSpecifications.idIn(pageIds)),
+                    resultLimit);
+        } else {
+            Specification<SecondHandHouse> specification =
+                    buildSearchSpecification(requester, keyword, minPrice, maxPrice, minArea, maxArea);
+            if (afterId != null) {
+                specification = specification.and(SecondHandHouseSpecifications.idGreaterThan(afterId));
+            }
+            rows = repository.findSummaries(specification, resultLimit);
+        }
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(HouseSummaryView::id).toList();
+        Map<Long, String> covers = new HashMap<>();
+        for (HouseImageRef image : repository.findCoverRefs(ids)) {
+            covers.put(image.houseId(), image.imageUrl());
+        }
+        Map<Long, String> reservationHolders = resolveReservationHoldersByIds(ids);
+        String requesterName = requester == null ? null : requester.getUsername();
+        viewCounter.recordImpressions(ids);
+        return rows.stream()
+                .map(row -> {
+                    String holder = reservationHolders.get(row.id());
+                    return row.complete(covers.get(row.id()), reservationHolders.containsKey(row.id()),
+                            holder != null && holder.equalsIgnoreCase(requesterName));
+                })
+                .toList();
+    }
+
+    // 命中结果与分面统计一起返回：只查询一次候选集，单次遍历累计各分面桶，再截取前 limit 条构建视图；
+    // 分面直接由索引持有的房源快照统计（无关键词时同样如此），数据库只加载返回的前 limit 条
+    @Transactional(readOnly = true)
+    public HouseFacetedSearchResponse searchWithFacets(String keyword,
+                                                       BigDecimal minPrice,
+                                                       BigDecimal maxPrice,
+                                                       BigDecimal minArea,
+                                                       BigDecimal maxArea,
+                                                       String requesterUsername,
+                                                       int limit) {
+        int itemLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        UserAccount requester = resolveRequester(requesterUsername);
+        List<HouseListingSnapshot> keywordMatches =
+                keywordHits(keyword, requester, minPrice, maxPrice, minArea, maxArea);
+        if (keywordMatches == null && keywordIndex.isReady()) {
+            // 无关键词或关键词需要部分匹配时，同样在索引持有的快照上筛选计数，不把全部房源加载为实体
+            String normalized = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+            keywordMatches = keywordIndex.filterDocuments(snapshotFilter(requester, minPrice, maxPrice, minArea, maxArea)
+                    .and(snapshot -> containsKeyword(snapshot, normalized)));
+        }
+        if (keywordMatches != null) {
+            HouseFacetCounter counter = new HouseFacetCounter();
+            keywordMatches.forEach(counter::accept);
+            List<SecondHandHouse> page = loadHits(hitIds(keywordMatches, null, itemLimit),
+                    searchFilters(requester, minPrice, maxPrice, minArea, maxArea));
+            return new HouseFacetedSearchResponse(buildViewsForRequester(page, requester), keywordMatches.size(),
+                    counter.toFacets());
+        }
+        // 仅在启动期间索引尚未就绪时退回数据库查询
+        Specification<SecondHandHouse> specification =
+                buildSearchSpecification(requester, keyword, minPrice, maxPrice, minArea, maxArea);
+        List<SecondHandHouse> hits = repository.findAll(specification, Sort.by(Sort.Direction.ASC, "id"));
+        HouseFacetCounter counter = new HouseFacetCounter();
+        hits.forEach(counter::accept);
+        List<SecondHandHouse> page = hits.size() > itemLimit ? hits.subList(0, itemLimit) : hits;
+        return new HouseFacetedSearchResponse(buildViewsForRequester(page, requester), hits.size(), counter.toFacets());
+    }
+
+    // 相关度排序：索引已按快照剔除不可见及不满足价格、面积条件的命中，这里按相关度（乘以热度加权）
+    // 用定长小顶堆选出前 topK 个 ID，调用方只从数据库加载这 K 条
+    private List<Long> rankByRelevance(HouseKeywordIndex.KeywordMatches matches, int topK) {
+        int[] docIds = matches.docIds();
+        HouseTopKSelector selector = new HouseTopKSelector(topK);
+        for (int i = 0; i < docIds.length; i++) {
+            selector.offer(docIds[i], matches.scores()[i] * viewCounter.rankingBoost(docIds[i]));
+        }
+        return Arrays.stream(selector.drainDescending()).boxed().toList();
+    }
+
+    @Transactional(readOnly = true)
+    public HousePageResponse searchPage(String keyword,
+                                        BigDecimal minPrice,
+                                        BigDecimal maxPrice,
+                                        BigDecimal minArea,
+                                        BigDecimal maxArea,
+                                        String requesterUsername,
+                                        HouseSortField sortField,
+                                        Sort.Direction direction,
+                                        String cursorToken,
+                                        int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        HousePageCursor cursor = HousePageCursor.decode(cursorToken, sortField, direction);
+        UserAccount requester = resolveRequester(requesterUsername);
+        List<HouseListingSnapshot> hits = keywordHits(keyword, requester, minPrice, maxPrice, minArea, maxArea);
+        if (hits != null) {
+            return keywordPage(hits, requester, searchFilters(requester, minPrice, maxPrice, minArea, maxArea),
+                    sortField, direction, cursor, pageSize);
+        }
+        Specification<SecondHandHouse> specification =
+                buildSearchSpecification(requester, keyword, minPrice, maxPrice, minArea, maxArea)
+                        .and(SecondHandHouseSpecifications.after(cursor));
+        Sort sort = Sort.by(direction, sortField.property()).and(Sort.by(direction, "id"));
+        List<SecondHandHouse> window = repository.findBy(specification,
+                query -> query.sortBy(sort).limit(pageSize + 1).all());
+        boolean hasMore = window.size() > pageSize;
+        List<SecondHandHouse> page = hasMore ? window.subList(0, pageSize) : window;
+        String nextCursor = hasMore
+                ? HousePageCursor.after(page.get(page.size() - 1), sortField, direction).encode()
+                : null;
+        List<SecondHandHouseView> items = buildViewsForRequester(page, requester);
+        return new HousePageResponse(items, nextCursor, hasMore);
+    }
+
+    // 关键词分页：在索引快照上按排序键与游标截取一页 ID，只加载这一页的房源
+    private HousePageResponse keywordPage(List<HouseListingSnapshot> hits,
+                                          UserAccount requester,
+                                          Specification<SecondHandHouse> filters,
+                                          HouseSortField sortField,
+                                          Sort.Direction direction,
+                                          HousePageCursor cursor,
+                                          int pageSize) {
+        Comparable<?> cursorValue = cursor == null ? null : sortField.parseCursorValue(cursor.sortValue());
+        List<Long> window = hits.stream()
+                .filter(hit -> cursor == null
+                        || compareSortKeys(sortField.valueOf(hit), hit.id(), cursorValue, cursor.id(), direction) > 0)
+                .sorted((left, right) -> compareSortKeys(sortField.valueOf(left), left.id(),
+                        sortField.valueOf(right), right.id(), direction))
+                .limit(pageSize + 1L)
+                .map(HouseListingSnapshot::id)
                 .toList();
+        boolean hasMore = window.size() > pageSize;
+        List<SecondHandHouse> page = loadHits(hasMore ? window.subList(0, pageSize) : window, filters);
+        String nextCursor = hasMore && !page.isEmpty()
+                ? HousePageCursor.after(page.get(page.size() - 1), sortField, direction).encode()
+                : null;
+        return new HousePageResponse(buildViewsForRequester(page, requester), nextCursor, nextCursor != null);
+    }
+
+    // 与 SecondHandHouseSpecifications.after 的键集条件一致：先比较排序键再比较 ID，降序时整体取反
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compareSortKeys(Comparable left, long leftId, Comparable right, long rightId,
+                                       Sort.Direction direction) {
+        int result = left.compareTo(right);
+        if (result == 0) {
+            result = Long.compare(leftId, rightId);
+        }
+        return direction == Sort.Direction.DESC ? -result : result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<HouseSuggestion> suggest(String prefix, int limit) {
+        if (!suggestionIndex.isReady() || prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return suggestionIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<HouseLocationView> findNearby(double latitude, double longitude, double radiusKm, Integer limit) {
+        validateCoordinate(latitude, longitude);
+        if (!(radiusKm > 0) || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "检索半径需大于 0 且不超过 50 公里");
+        }
+        int resultLimit = resolveLocationLimit(limit);
+        if (geoIndex.isReady()) {
+            return geoIndex.nearby(latitude, longitude, radiusKm, resultLimit);
+        }
+        return loadApprovedLocations().stream()
+                .filter(view -> HouseGeoIndex.distanceKm(latitude, longitude, view.latitude(), view.longitude()) <= radiusKm)
+                .sorted(Comparator.comparingDouble(view ->
+                        HouseGeoIndex.distanceKm(latitude, longitude, view.latitude(), view.longitude())))
+                .limit(resultLimit)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<HouseLocationView> findWithinBounds(double south, double west, double north, double east, Integer limit) {
+        validateBounds(south, west, north, east);
+        int resultLimit = resolveLocationLimit(limit);
+        if (geoIndex.isReady()) {
+            return geoIndex.withinBounds(south, west, north, east, resultLimit);
+        }
+        return loadApprovedLocations().stream()
+                .filter(view -> view.latitude() >= south && view.latitude() <= north
+                        && view.longitude() >= west && view.longitude() <= east)
+                .limit(resultLimit)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<HouseClusterView> findClusters(double south, double west, double north, double east, int zoom) {
+        validateBounds(south, west, north, east);
+        if (clusterIndex.isReady()) {
+            return clusterIndex.clusters(south, west, north, east, zoom);
+        }
+        return HouseClusterIndex.aggregate(loadApprovedLocations(), south, west, north, east, zoom);
+    }
+
+    // 详情 ETag：只查询更新时间、状态与预定人，与脱敏、预定标记一起决定响应内容；
+    // 房源不存在或不可见时返回 null，交由 viewById 按原逻辑返回 404
+    @Transactional(readOnly = true)
+    public String detailETag(Long id, String requesterUsername) {
+        HouseVersionStamp stamp = repository.findVersionStampById(id).orElse(null);
+        if (stamp == null || stamp.updatedAt() == null) {
+            return null;
+        }
+        UserAccount requester = resolveRequester(requesterUsername);
+        if (!isVisibleToRequester(stamp.status(), stamp.sellerUsername(), requester)) {
+            return null;
+        }
+        List<HouseReservationSnapshot> reservations =
+                houseOrderRepository.findReservationSnapshots(List.of(id), OrderStatus.RESERVED);
+        String holder = reservations.isEmpty() ? null : reservations.get(0).buyerUsername();
+        boolean reservationActive = !reservations.isEmpty();
+        boolean ownedByRequester = holder != null && requester != null && holder.equalsIgnoreCase(requester.getUsername());
+        boolean maskSensitive = shouldMaskSensitive(stamp.sellerUsername(), requester);
+        Instant updatedAt = stamp.updatedAt().toInstant();
+        return "\"h" + id + "-" + Long.toHexString(updatedAt.getEpochSecond())
+                + Integer.toHexString(updatedAt.getNano())
+                + "-" + (maskSensitive ? 'm' : 'f') + (reservationActive ? 'r' : 'a') + (ownedByRequester ? 'o' : 'n')
+                + "\"";
+    }
+
+    // 详情浏览计数：由控制器在 ETag 条件判断之前调用，304 响应同样计入；房源可见（ETag 非空）时才调用
+    public void recordView(Long id) {
+        viewCounter.recordView(id);
     }
 
     @Transactional(readOnly = true)
     public SecondHandHouseView viewById(Long id, String requesterUsername) {
-        SecondHandHouse house = findById(id);
+        SecondHandHouse house = repository.findDetailedById(id)
+                .orElseThrow(() -> new SecondHandHouseNotFoundException(id));
         UserAccount requester = resolveRequester(requesterUsername);
         if (!isVisibleToRequester(house, requester)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "房源不存在或尚未通过审核");
         }
-        return buildViewForRequester(house, requester);
+        return buildViewForRequester(house, requester, resolveReservationHolders(List.of(house)));
+    }
+
+    // 稀疏字段详情：只查询所需列，可见性判断所需的状态与卖家始终一并查询
+    @Transactional(readOnly = true)
+    public Map<String, Object> viewFieldsById(Long id, String requesterUsername, Set<HouseViewField> fields) {
+        List<Tuple> rows = repository.findColumns(SecondHandHouseSpecifications.idIn(List.of(id)),
+                selectedAttributes(fields), 1);
+        if (rows.isEmpty()) {
+            throw new SecondHandHouseNotFoundException(id);
+        }
+        Tuple row = rows.get(0);
+        UserAccount requester = resolveRequester(requesterUsername);
+        if (!isVisibleToRequester(row.get("status", ListingStatus.class), row.get("sellerUsername", String.class), requester)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "房源不存在或尚未通过审核");
+        }
+        return buildFieldMaps(rows, fields, requester).get(0);
+    }
+
+    // 收藏、对比与最近浏览页批量取详情：房源连同图片一次查询，标签按批次加载，预定状态一次查询，
+    // 请求人只解析一次；不存在或不可见的房源直接略过，结果按请求的 ID 顺序返回
+    @Transactional(readOnly = true)
+    public List<SecondHandHouseView> viewByIds(List<Long> ids, String requesterUsername) {
+        List<Long> requestedIds = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (requestedIds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请提供房源 ID");
+        }
+        if (requestedIds.size() > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "单次最多查询" + MAX_PAGE_SIZE + "套房源");
+        }
+        UserAccount requester = resolveRequester(requesterUsername);
+        Map<Long, SecondHandHouse> housesById = new HashMap<>();
+        for (SecondHandHouse house : repository.findDetailedByIdIn(requestedIds)) {
+            if (isVisibleToRequester(house, requester)) {
+                housesById.put(house.getId(), house);
+            }
+        }
+        List<SecondHandHouse> ordered = requestedIds.stream()
+                .map(housesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        List<SecondHandHouseView> views = buildViewsForRequester(ordered, requester);
+        recordImpressions(views);
+        return views;
     }
 
     public SecondHandHouse findById(Long id) {
@@ -76,8 +554,17 @@ public class SecondHandHouseService {
                 .orElseThrow(() -> new SecondHandHouseNotFoundException(id));
     }
 
+    // 图片与标签为懒加载集合，视图须在事务内构建，控制器不再直接访问实体
+    public SecondHandHouseView createView(SecondHandHouse house) {
+        return SecondHandHouseView.fromEntity(create(house), false);
+    }
+
+    public SecondHandHouseView updateView(Long id, SecondHandHouse updatedHouse) {
+        return SecondHandHouseView.fromEntity(update(id, updatedHouse), false);
+    }
+
     public SecondHandHouse create(SecondHandHouse house) {
-        validateSellerAccount(house.getSellerUsername());
+        house.setSellerUsername(validateSellerAccount(house.getSellerUsername()));
         ListingStatus targetStatus = resolveTargetStatus(house.getStatus());
         if (targetStatus != ListingStatus.DRAFT) {
             ensureNotDuplicate(house, null);
@@ -87,12 +574,15 @@ public class SecondHandHouseService {
         house.setReviewedAt(null);
         house.setReviewedBy(null);
         house.setReviewMessage(null);
-        return repository.save(house);
+        SecondHandHouse saved = repository.save(house);
+        flagNearDuplicates(saved);
+        eventPublisher.publishEvent(HouseListingChangedEvent.of(HouseListingChangeType.CREATED, saved));
+        return saved;
     }
 
     public SecondHandHouse update(Long id, SecondHandHouse updatedHouse) {
         SecondHandHouse existing = findById(id);
-        validateSellerAccount(updatedHouse.getSellerUsername());
+        updatedHouse.setSellerUsername(validateSellerAccount(updatedHouse.getSellerUsername()));
         ListingStatus targetStatus = resolveTargetStatus(updatedHouse.getStatus());
         if (targetStatus != ListingStatus.DRAFT) {
             ensureNotDuplicate(updatedHouse, id);
@@ -112,11 +602,16 @@ public class SecondHandHouseService {
         existing.setFloor(updatedHouse.getFloor());
         existing.setKeywords(updatedHouse.getKeywords());
         existing.setImageUrls(updatedHouse.getImageUrls());
+        // 仅图片或标签变化时实体字段不脏，@PreUpdate 不会触发；显式刷新更新时间，保证详情 ETag 随之变化
+        existing.setUpdatedAt(OffsetDateTime.now());
         existing.setStatus(targetStatus);
         existing.setReviewedAt(null);
         existing.setReviewedBy(null);
         existing.setReviewMessage(null);
-        return repository.save(existing);
+        SecondHandHouse saved = repository.save(existing);
+        flagNearDuplicates(saved);
+        eventPublisher.publishEvent(HouseListingChangedEvent.of(HouseListingChangeType.UPDATED, saved));
+        return saved;
     }
 
     public void delete(Long id, String requesterUsername) {
@@ -141,6 +636,7 @@ public class SecondHandHouseService {
                 log.info("管理员 {} 删除房源 {} 时移除了 {} 条关联订单", requester.getUsername(), house.getId(), relatedOrders.size());
             }
             repository.delete(house);
+            eventPublisher.publishEvent(HouseListingChangedEvent.removed(id));
             return;
         }
 
@@ -150,13 +646,42 @@ public class SecondHandHouseService {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "房源存在正在处理的订单，无法删除。");
             }
             repository.delete(house);
+            eventPublisher.publishEvent(HouseListingChangedEvent.removed(id));
             return;
         }
 
         throw new ResponseStatusException(HttpStatus.FORBIDDEN, "您无权删除该房源");
     }
 
-    public SecondHandHouseView review(Long id, ListingStatus status, String reviewMessage, String reviewerUsername) {
+    // 详情页相似房源：已上架房源直接取索引中的向量，已售房源按其当前特征查询；其余状态不做推荐
+    @Transactional(readOnly = true)
+    public List<HouseSimilarView> findSimilar(Long id, Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "返回条数必须为正数");
+        }
+        int resultLimit = limit == null ? DEFAULT_SIMILAR_LIMIT : Math.min(limit, MAX_SIMILAR_LIMIT);
+        if (!similarityIndex.isReady()) {
+            return List.of();
+        }
+        List<HouseSimilarView> similar = similarityIndex.similarTo(id, resultLimit);
+        if (similar != null) {
+            return similar;
+        }
+        SecondHandHouse house = findById(id);
+        if (house.getStatus() != ListingStatus.SOLD) {
+            return List.of();
+        }
+        return similarityIndex.similarTo(HouseListingSnapshot.fromEntity(house), resultLimit);
+    }
+
+    // 管理员查看与指定房源疑似重复的其他房源（含其他卖家发布的）
+    @Transactional(readOnly = true)
+    public List<HouseDuplicateCandidate> findNearDuplicates(Long id, String requesterUsername) {
+        requireAdmin(requesterUsername);
+        return nearDuplicateIndex.findSimilar(HouseListingSnapshot.fromEntity(findById(id)));
+    }
+
+    public HouseReviewResult review(Long id, ListingStatus status, String reviewMessage, String reviewerUsername) {
         if (status == null || status == ListingStatus.PENDING_REVIEW) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "审核状态无效");
         }
@@ -170,60 +695,154 @@ public class SecondHandHouseService {
         } else {
             house.setReviewMessage(reviewMessage == null || reviewMessage.isBlank() ? "审核通过" : reviewMessage.trim());
         }
+        List<Long> duplicateSuspects = List.of();
+        if (status == ListingStatus.APPROVED) {
+            duplicateSuspects = nearDuplicateIndex.findSimilar(HouseListingSnapshot.fromEntity(house)).stream()
+                    .map(HouseDuplicateCandidate::id)
+                    .toList();
+            if (!duplicateSuspects.isEmpty()) {
+                log.warn("管理员 {} 审核通过的房源 {} 与以下房源疑似重复: {}", reviewer.getUsername(), id, duplicateSuspects);
+            }
+        }
         house.setStatus(status);
         house.setReviewedBy(reviewer.getUsername());
         house.setReviewedAt(OffsetDateTime.now());
         SecondHandHouse saved = repository.save(house);
-        return SecondHandHouseView.fromEntity(saved, false);
+        eventPublisher.publishEvent(HouseListingChangedEvent.of(HouseListingChangeType.REVIEWED, saved));
+        return new HouseReviewResult(SecondHandHouseView.fromEntity(saved, false), duplicateSuspects);
     }
 
-    @Scheduled(cron = "0 0 3 * * ?")
-    public void removeStaleListings() {
-        int staleRemoved = cleanupStaleListings();
-        int delistedRemoved = cleanupDelistedListings();
-        if (staleRemoved > 0 || delistedRemoved > 0) {
-            log.info("自动清理 {} 套超过一个月无人购买的房源，移除 {} 套已下架房源", staleRemoved, delistedRemoved);
-        }
+    // 审核队列：待审核房源按提交时间先后键集分页，每条附带疑似重复房源 ID
+    @Transactional(readOnly = true)
+    public HouseModerationPage moderationQueue(String requesterUsername, String cursorToken, int size) {
+        requireAdmin(requesterUsername);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        HouseModerationCursor cursor = HouseModerationCursor.decode(cursorToken);
+        List<HouseModerationItem> window = cursor == null
+                ? repository.findModerationQueue(ListingStatus.PENDING_REVIEW, Limit.of(pageSize + 1))
+                : repository.findModerationQueueAfter(ListingStatus.PENDING_REVIEW, cursor.createdAt(), cursor.id(),
+                        Limit.of(pageSize + 1));
+        boolean hasMore = window.size() > pageSize;
+        List<HouseModerationItem> page = hasMore ? window.subList(0, pageSize) : window;
+        String nextCursor = hasMore ? HouseModerationCursor.after(page.get(page.size() - 1)).encode() : null;
+        List<HouseModerationItem> items = page.stream()
+                .map(item -> item.withDuplicateSuspects(nearDuplicateIndex.findSimilarTo(item.id()).stream()
+                        .map(HouseDuplicateCandidate::id)
+                        .toList()))
+                .toList();
+        return new HouseModerationPage(items, nextCursor, hasMore);
     }
 
-    public int cleanupStaleListings() {
-        LocalDate cutoffDate = LocalDate.now().minusMonths(1);
-        List<SecondHandHouse> candidates = repository.findByListingDateBefore(cutoffDate);
-        List<SecondHandHouse> toRemove = candidates.stream()
-                .filter(house -> house.getStatus() == ListingStatus.APPROVED)
-                .filter(house -> !houseOrderRepository.existsByHouse_IdAndStatus(house.getId(), OrderStatus.PAID))
-                .toList();
-        if (!toRemove.isEmpty()) {
-            repository.deleteAll(toRemove);
+    // 批量审核：同一审核结论按批次更新，只处理仍在待审核状态的房源，其余 ID 作为跳过项返回
+    public HouseBulkReviewResult reviewBatch(List<Long> ids, ListingStatus status, String reviewMessage,
+                                             String reviewerUsername) {
+        if (status == null || status == ListingStatus.PENDING_REVIEW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "审核状态无效");
+        }
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请选择需要审核的房源");
+        }
+        UserAccount reviewer = requireAdmin(reviewerUsername);
+        String message;
+        if (status == ListingStatus.REJECTED) {
+            if (reviewMessage == null || reviewMessage.isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请填写驳回原因");
+            }
+            message = reviewMessage.trim();
+        } else {
+            message = reviewMessage == null || reviewMessage.isBlank() ? "审核通过" : reviewMessage.trim();
+        }
+        List<Long> requestedIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> pendingIds = new ArrayList<>();
+        for (int from = 0; from < requestedIds.size(); from += BULK_REVIEW_BATCH_SIZE) {
+            List<Long> batch = requestedIds.subList(from, Math.min(from + BULK_REVIEW_BATCH_SIZE, requestedIds.size()));
+            pendingIds.addAll(repository.filterIdsByStatus(batch, ListingStatus.PENDING_REVIEW));
+        }
+        // 通过前在索引中比对疑似重复，此时待审核房源仍按原签名在索引中
+        Map<Long, List<Long>> suspects = new HashMap<>();
+        if (status == ListingStatus.APPROVED) {
+            for (Long id : pendingIds) {
+                List<Long> similar = nearDuplicateIndex.findSimilarTo(id).stream()
+                        .map(HouseDuplicateCandidate::id)
+                        .toList();
+                if (!similar.isEmpty()) {
+                    suspects.put(id, similar);
+                }
+            }
+            if (!suspects.isEmpty()) {
+                log.warn("管理员 {} 批量审核通过的房源中存在疑似重复: {}", reviewer.getUsername(), suspects);
+            }
+        }
+        // 截断到数据库 DATETIME(6) 的精度，便于重新加载后比对
+        OffsetDateTime reviewedAt = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = 0;
+        for (int from = 0; from < pendingIds.size(); from += BULK_REVIEW_BATCH_SIZE) {
+            List<Long> batch = pendingIds.subList(from, Math.min(from + BULK_REVIEW_BATCH_SIZE, pendingIds.size()));
+            updated += repository.updateReviewStatus(batch, ListingStatus.PENDING_REVIEW, status,
+                    reviewer.getUsername(), message, reviewedAt);
+        }
+        // 批量更新绕过了持久化上下文，重新加载后按实际结果发布事件
+        Set<Long> reviewedIds = new HashSet<>();
+        for (SecondHandHouse house : repository.findAllById(pendingIds)) {
+            if (house.getStatus() == status && house.getReviewedAt() != null
+                    && reviewedAt.isEqual(house.getReviewedAt())) {
+                reviewedIds.add(house.getId());
+                eventPublisher.publishEvent(HouseListingChangedEvent.of(HouseListingChangeType.REVIEWED, house));
+            }
         }
-        return toRemove.size();
+        List<Long> skippedIds = requestedIds.stream().filter(id -> !reviewedIds.contains(id)).toList();
+        suspects.keySet().retainAll(reviewedIds);
+        return new HouseBulkReviewResult(status, requestedIds.size(), updated, skippedIds, suspects);
     }
 
-    public int cleanupDelistedListings() {
-        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(7);
-        List<SecondHandHouse> soldListings = repository.findByStatusAndUpdatedAtBefore(ListingStatus.SOLD, cutoff);
-        if (!soldListings.isEmpty()) {
-            repository.deleteAll(soldListings);
+    // 手动触发清理（可演练），不在当前事务中执行，以便每个分块独立提交
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<HouseCleanupReport> runListingCleanup(String requesterUsername, boolean dryRun) {
+        requireAdmin(requesterUsername);
+        return cleanupService.run(dryRun);
+    }
+
+    // 卖家看板：自己各房源的浏览与曝光数，按浏览数降序；管理员可查看任意卖家
+    @Transactional(readOnly = true)
+    public List<HouseViewStatsView> viewStatsForSeller(String requesterUsername, String sellerUsername) {
+        if (requesterUsername == null || requesterUsername.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请求人不能为空");
+        }
+        UserAccount requester = userAccountRepository.findByUsernameIgnoreCase(requesterUsername)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "请求人账号不存在"));
+        String seller = sellerUsername == null || sellerUsername.isBlank() ? requester.getUsername() : sellerUsername.trim();
+        if (requester.getRole() != UserRole.ADMIN && !seller.equalsIgnoreCase(requester.getUsername())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "只能查看自己房源的浏览数据");
         }
-        return soldListings.size();
+        return repository.findViewStatsHeadsBySeller(seller).stream()
+                .map(head -> head.withCounts(viewCounter.views(head.houseId()), viewCounter.impressions(head.houseId())))
+                .sorted(Comparator.comparingLong(HouseViewStatsView::views).reversed()
+                        .thenComparing(HouseViewStatsView::houseId))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<HouseCleanupReport> lastCleanupReports(String requesterUsername) {
+        requireAdmin(requesterUsername);
+        return cleanupService.lastReports();
     }
 
-    private SecondHandHouseView buildViewForRequester(SecondHandHouse house, UserAccount requester) {
+    private List<SecondHandHouseView> buildViewsForRequester(List<SecondHandHouse> houses, UserAccount requester) {
+        Map<Long, String> reservationHolders = resolveReservationHolders(houses);
+        return houses.stream()
+                .map(house -> buildViewForRequester(house, requester, reservationHolders))
+                .toList();
+    }
+
+    private SecondHandHouseView buildViewForRequester(SecondHandHouse house,
+                                                      UserAccount requester,
+                                                      Map<Long, String> reservationHolders) {
         boolean maskSensitive = shouldMaskSensitive(house, requester);
-        boolean reservationActive = false;
+        boolean reservationActive = house.getId() != null && reservationHolders.containsKey(house.getId());
         boolean reservationOwnedByRequester = false;
-        if (house.getId() != null) {
-            HouseOrder reservation = houseOrderRepository
-                    .findFirstByHouse_IdAndStatusOrderByCreatedAtDesc(house.getId(), OrderStatus.RESERVED)
-                    .orElse(null);
-            if (reservation != null) {
-                reservationActive = true;
-                if (requester != null && reservation.getBuyer() != null
-                        && reservation.getBuyer().getUsername() != null) {
-                    reservationOwnedByRequester = reservation.getBuyer().getUsername()
-                            .equalsIgnoreCase(requester.getUsername());
-                }
-            }
+        if (reservationActive && requester != null) {
+            String holder = reservationHolders.get(house.getId());
+            reservationOwnedByRequester = holder != null && holder.equalsIgnoreCase(requester.getUsername());
         }
         return SecondHandHouseView.fromEntity(
                 house,
@@ -233,16 +852,256 @@ public class SecondHandHouseService {
         );
     }
 
-    private boolean filterByKeyword(SecondHandHouse house, String keyword) {
-        if (keyword == null || keyword.isBlank()) {
+    // 所请求字段对应的列，外加可见性与脱敏判断必需的 ID、状态与卖家
+    private List<String> selectedAttributes(Set<HouseViewField> fields) {
+        Set<HouseViewField> columns = EnumSet.of(HouseViewField.ID, HouseViewField.STATUS, HouseViewField.SELLER_USERNAME);
+        fields.stream().filter(HouseViewField::isColumn).forEach(columns::add);
+        return columns.stream().map(HouseViewField::attribute).toList();
+    }
+
+    private List<Tuple> orderByIds(List<Tuple> rows, List<Long> ids) {
+        Map<Long, Tuple> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(row.get("id", Long.class), row));
+        List<Tuple> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Tuple row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    // 按字段集组装响应：联系人信息按与完整视图相同的规则脱敏，集合与预定状态各用一次批量查询
+    private List<Map<String, Object>> buildFieldMaps(List<Tuple> rows, Set<HouseViewField> fields, UserAccount requester) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(row -> row.get("id", Long.class)).toList();
+        Map<Long, List<String>> images = new HashMap<>();
+        if (fields.contains(HouseViewField.IMAGE_URLS)) {
+            for (HouseImageRef image : repository.findImageRefs(ids)) {
+                images.computeIfAbsent(image.houseId(), ignored -> new ArrayList<>()).add(image.imageUrl());
+            }
+        }
+        Map<Long, List<String>> keywords = new HashMap<>();
+        if (fields.contains(HouseViewField.KEYWORDS)) {
+            for (HouseKeywordRef keyword : repository.findKeywordRefs(ids)) {
+                keywords.computeIfAbsent(keyword.houseId(), ignored -> new ArrayList<>()).add(keyword.keyword());
+            }
+        }
+        Map<Long, String> reservationHolders = fields.contains(HouseViewField.RESERVATION_ACTIVE)
+                || fields.contains(HouseViewField.RESERVATION_OWNED_BY_REQUESTER)
+                ? resolveReservationHoldersByIds(ids)
+                : Map.of();
+        String requesterName = requester == null ? null : requester.getUsername();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Long id = row.get("id", Long.class);
+            boolean maskSensitive = shouldMaskSensitive(row.get("sellerUsername", String.class), requester);
+            String holder = reservationHolders.get(id);
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (HouseViewField field : fields) {
+                Object value = switch (field) {
+                    case SELLER_NAME -> maskSensitive
+                            ? MaskingUtils.maskDisplayName(row.get("sellerName", String.class))
+                            : row.get("sellerName");
+                    case CONTACT_NUMBER -> maskSensitive
+                            ? MaskingUtils.maskPhoneNumber(row.get("contactNumber", String.class))
+                            : row.get("contactNumber");
+                    case IMAGE_URLS -> images.getOrDefault(id, List.of());
+                    case KEYWORDS -> keywords.getOrDefault(id, List.of());
+                    case SENSITIVE_MASKED -> maskSensitive;
+                    case RESERVATION_ACTIVE -> reservationHolders.containsKey(id);
+                    case RESERVATION_OWNED_BY_REQUESTER -> holder != null && holder.equalsIgnoreCase(requesterName);
+                    default -> row.get(field.attribute());
+                };
+                values.put(field.jsonName(), value);
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    // 一次查询解析整页房源的预定状态：房源 ID -> 最新预定买家
+    private Map<Long, String> resolveReservationHolders(List<SecondHandHouse> houses) {
+        return resolveReservationHoldersByIds(houses.stream()
+                .map(SecondHandHouse::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+    }
+
+    private Map<Long, String> resolveReservationHoldersByIds(List<Long> houseIds) {
+        if (houseIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> holders = new HashMap<>();
+        for (int from = 0; from < houseIds.size(); from += RESERVATION_LOOKUP_BATCH_SIZE) {
+            List<Long> batch = houseIds.subList(from, Math.min(from + RESERVATION_LOOKUP_BATCH_SIZE, houseIds.size()));
+            for (HouseReservationSnapshot reservation
+                    : houseOrderRepository.findReservationSnapshots(batch, OrderStatus.RESERVED)) {
+                holders.putIfAbsent(reservation.houseId(), reservation.buyerUsername());
+            }
+        }
+        return holders;
+    }
+
+    private Specification<SecondHandHouse> buildSearchSpecification(UserAccount requester,
+                                                                    String keyword,
+                                                                    BigDecimal minPrice,
+                                                                    BigDecimal maxPrice,
+                                                                    BigDecimal minArea,
+                                                                    BigDecimal maxArea) {
+        String normalized = keyword == null ? null : keyword.trim().toLowerCase(Locale.ROOT);
+        return searchFilters(requester, minPrice, maxPrice, minArea, maxArea)
+                .and(SecondHandHouseSpecifications.keywordContains(normalized));
+    }
+
+    private Specification<SecondHandHouse> searchFilters(UserAccount requester,
+                                                         BigDecimal minPrice,
+                                                         BigDecimal maxPrice,
+                                                         BigDecimal minArea,
+                                                         BigDecimal maxArea) {
+        return Specification
+                .where(SecondHandHouseSpecifications.visibleTo(requester))
+                .and(SecondHandHouseSpecifications.priceBetween(minPrice, maxPrice))
+                .and(SecondHandHouseSpecifications.areaBetween(minArea, maxArea));
+    }
+
+    // 关键词优先走内存倒排索引，并在索引内按快照完成可见性与价格、面积筛选，命中按 ID 升序返回；
+    // 索引未就绪、查询无有效词元或含英文数字词元（索引按整词切分，保留 LIKE 的词内部分匹配）时返回 null，调用方退回 LIKE 查询
+    private List<HouseListingSnapshot> keywordHits(String keyword,
+                                                   UserAccount requester,
+                                                   BigDecimal minPrice,
+                                                   BigDecimal maxPrice,
+                                                   BigDecimal minArea,
+                                                   BigDecimal maxArea) {
+        String normalized = keyword == null ? null : keyword.trim().toLowerCase(Locale.ROOT);
+        if (normalized == null || normalized.isBlank() || !keywordIndex.isReady()
+                || HouseTextTokenizer.containsWordTerms(normalized)) {
+            return null;
+        }
+        return keywordIndex.searchDocuments(normalized,
+                snapshotFilter(requester, minPrice, maxPrice, minArea, maxArea));
+    }
+
+    private Predicate<HouseListingSnapshot> snapshotFilter(UserAccount requester,
+                                                           BigDecimal minPrice,
+                                                           BigDecimal maxPrice,
+                                                           BigDecimal minArea,
+                                                           BigDecimal maxArea) {
+        return snapshot -> isVisibleToRequester(snapshot.status(), snapshot.sellerUsername(), requester)
+                && withinRange(snapshot.price(), minPrice, maxPrice)
+                && withinRange(snapshot.area(), minArea, maxArea);
+    }
+
+    // 与 keywordContains 的 LIKE 语义一致：标题、地址、描述或任一标签包含关键词即命中，空关键词不筛选
+    private static boolean containsKeyword(HouseListingSnapshot snapshot, String normalizedKeyword) {
+        if (normalizedKeyword.isEmpty()) {
             return true;
         }
-        String haystack = (house.getTitle() + " " + house.getAddress() + " " + (house.getDescription() == null ? "" : house.getDescription()))
-                .toLowerCase(Locale.ROOT);
-        if (haystack.contains(keyword)) {
+        return containsIgnoreCase(snapshot.title(), normalizedKeyword)
+                || containsIgnoreCase(snapshot.address(), normalizedKeyword)
+                || containsIgnoreCase(snapshot.description(), normalizedKeyword)
+                || snapshot.keywords().stream().anyMatch(tag -> containsIgnoreCase(tag, normalizedKeyword));
+    }
+
+    private static boolean containsIgnoreCase(String text, String normalizedKeyword) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(normalizedKeyword);
+    }
+
+    private static boolean withinRange(BigDecimal value, BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
             return true;
         }
-        return house.getKeywords().stream().anyMatch(item -> item.contains(keyword));
+        return value != null
+                && (min == null || value.compareTo(min) >= 0)
+                && (max == null || value.compareTo(max) <= 0);
+    }
+
+    private static List<Long> hitIds(List<HouseListingSnapshot> hits, Long afterId, int limit) {
+        return hits.stream()
+                .map(HouseListingSnapshot::id)
+                .filter(id -> afterId == null || id > afterId)
+                .limit(limit)
+                .toList();
+    }
+
+    // 按 ID 分批加载索引命中的房源，每批仍带上可见性与价格、面积条件复核，结果保持 ids 的顺序
+    private List<SecondHandHouse> loadHits(List<Long> ids, Specification<SecondHandHouse> filters) {
+        Map<Long, SecondHandHouse> byId = new HashMap<>();
+        for (SecondHandHouse house : loadInBatches(ids,
+                batch -> repository.findAll(filters.and(SecondHandHouseSpecifications.idIn(batch))))) {
+            byId.put(house.getId(), house);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static <T> List<T> loadInBatches(List<Long> ids, Function<List<Long>, List<T>> loader) {
+        List<T> loaded = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += KEYWORD_HIT_BATCH_SIZE) {
+            loaded.addAll(loader.apply(ids.subList(from, Math.min(from + KEYWORD_HIT_BATCH_SIZE, ids.size()))));
+        }
+        return loaded;
+    }
+
+    // 空间索引尚未完成加载时的兜底：直接读取全部带坐标的已上架房源
+    private List<HouseLocationView> loadApprovedLocations() {
+        return repository.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ListingStatus.APPROVED).stream()
+                .map(HouseLocationView::fromEntity)
+                .toList();
+    }
+
+    private void validateCoordinate(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "经纬度超出有效范围");
+        }
+    }
+
+    private void validateBounds(double south, double west, double north, double east) {
+        validateCoordinate(south, west);
+        validateCoordinate(north, east);
+        if (south > north) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "南侧纬度不能大于北侧纬度");
+        }
+        if (west > east) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "暂不支持跨越 180 度经线的地图范围");
+        }
+    }
+
+    private int resolveLocationLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LOCATION_LIMIT;
+        }
+        if (limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "返回条数必须为正数");
+        }
+        return Math.min(limit, MAX_LOCATION_LIMIT);
+    }
+
+    private boolean isRelevanceSearch(String normalizedKeyword, String sort) {
+        return sort != null && !sort.isBlank() && normalizedKeyword != null && !normalizedKeyword.isBlank();
+    }
+
+    private String searchCacheKey(UserAccount requester,
+                                  String normalizedKeyword,
+                                  BigDecimal minPrice,
+                                  BigDecimal maxPrice,
+                                  BigDecimal minArea,
+                                  BigDecimal maxArea,
+                                  String sort,
+                                  Integer limit) {
+        // 相关度排序的结果随浏览热度加权变化，热度版本号一并计入缓存键与列表 ETag
+        String sortKey = isRelevanceSearch(normalizedKeyword, sort)
+                ? SORT_RELEVANCE + "@" + searchCache.popularityVersion()
+                : null;
+        return HouseSearchCache.key(visibilityClass(requester), normalizedKeyword, minPrice, maxPrice,
+                minArea, maxArea, sortKey, limit);
+    }
+
+    private void recordImpressions(List<SecondHandHouseView> views) {
+        viewCounter.recordImpressions(views.stream().map(SecondHandHouseView::id).toList());
     }
 
     private UserAccount resolveRequester(String username) {
@@ -252,29 +1111,40 @@ public class SecondHandHouseService {
         return userAccountRepository.findByUsernameIgnoreCase(username).orElse(null);
     }
 
+    // 搜索结果只取决于可见范围与脱敏规则：游客、未实名、已实名、管理员，卖家额外能看到自己的房源
+    private String visibilityClass(UserAccount requester) {
+        if (requester == null) {
+            return "ANONYMOUS";
+        }
+        if (requester.getRole() == UserRole.ADMIN) {
+            return "ADMIN";
+        }
+        String verification = requester.isRealNameVerified() ? "VERIFIED" : "UNVERIFIED";
+        if (requester.getRole().isSellerRole()) {
+            return "SELLER:" + verification + ":" + requester.getUsername().toLowerCase(Locale.ROOT);
+        }
+        return verification;
+    }
+
     private boolean shouldMaskSensitive(SecondHandHouse house, UserAccount requester) {
+        return shouldMaskSensitive(house.getSellerUsername(), requester);
+    }
+
+    private boolean shouldMaskSensitive(String sellerUsername, UserAccount requester) {
         if (requester == null) {
             return true;
         }
         if (requester.getRole() == UserRole.ADMIN) {
             return false;
         }
-        if (house.getSellerUsername() != null && house.getSellerUsername().equalsIgnoreCase(requester.getUsername())) {
+        if (sellerUsername != null && sellerUsername.equalsIgnoreCase(requester.getUsername())) {
             return false;
         }
         return !requester.isRealNameVerified();
     }
 
-    private boolean filterByRange(BigDecimal value, BigDecimal min, BigDecimal max) {
-        if (value == null) {
-            return false;
-        }
-        boolean greaterThanMin = min == null || value.compareTo(min) >= 0;
-        boolean lessThanMax = max == null || value.compareTo(max) <= 0;
-        return greaterThanMin && lessThanMax;
-    }
-
-    private void validateSellerAccount(String sellerUsername) {
+    // 校验卖家账号并返回账号表中的用户名，房源按此写入，按卖家过滤时可直接比较原始列
+    private String validateSellerAccount(String sellerUsername) {
         if (sellerUsername == null || sellerUsername.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "卖家账号不能为空");
         }
@@ -286,6 +1156,7 @@ public class SecondHandHouseService {
         if (seller.isBlacklisted()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "该卖家已被加入黑名单，无法发布房源");
         }
+        return seller.getUsername();
     }
 
     private void ensureNotDuplicate(SecondHandHouse house, Long ignoreId) {
@@ -295,22 +1166,31 @@ public class SecondHandHouseService {
         if (house.getStatus() == ListingStatus.DRAFT) {
             return;
         }
-        String normalizedTitle = normalize(house.getTitle());
-        String normalizedAddress = normalize(house.getAddress());
-        if (normalizedTitle.isEmpty() || normalizedAddress.isEmpty()) {
+        String fingerprint = ListingFingerprint.of(house.getSellerUsername(), house.getTitle(), house.getAddress());
+        if (fingerprint == null) {
             return;
         }
-        List<SecondHandHouse> existingList = repository.findBySellerUsernameIgnoreCase(house.getSellerUsername());
-        boolean duplicate = existingList.stream()
-                .filter(existing -> ignoreId == null || !Objects.equals(existing.getId(), ignoreId))
-                .filter(existing -> existing.getStatus() != ListingStatus.REJECTED)
-                .anyMatch(existing -> normalize(existing.getTitle()).equals(normalizedTitle)
-                        && normalize(existing.getAddress()).equals(normalizedAddress));
+        // 指纹列上有索引，一次查询即可判断，无需加载卖家的全部房源
+        boolean duplicate = ignoreId == null
+                ? repository.existsByListingFingerprintAndStatusNot(fingerprint, ListingStatus.REJECTED)
+                : repository.existsByListingFingerprintAndStatusNotAndIdNot(fingerprint, ListingStatus.REJECTED, ignoreId);
         if (duplicate) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "检测到重复房源信息，请勿重复上架。");
         }
     }
 
+    // 提交时比对近似签名，仅记录告警供审核参考，不阻止提交
+    private void flagNearDuplicates(SecondHandHouse house) {
+        if (house.getStatus() == ListingStatus.DRAFT) {
+            return;
+        }
+        List<HouseDuplicateCandidate> suspects = nearDuplicateIndex.findSimilar(HouseListingSnapshot.fromEntity(house));
+        if (!suspects.isEmpty()) {
+            log.warn("卖家 {} 提交的房源 {} 与以下房源疑似重复: {}", house.getSellerUsername(), house.getId(),
+                    suspects.stream().map(HouseDuplicateCandidate::id).toList());
+        }
+    }
+
     private ListingStatus resolveTargetStatus(ListingStatus requestedStatus) {
         if (requestedStatus == ListingStatus.DRAFT) {
             return ListingStatus.DRAFT;
@@ -318,15 +1198,12 @@ public class SecondHandHouseService {
         return ListingStatus.PENDING_REVIEW;
     }
 
-    private String normalize(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value.replaceAll("\\s+", " ").trim().toLowerCase(Locale.ROOT);
+    private boolean isVisibleToRequester(SecondHandHouse house, UserAccount requester) {
+        return isVisibleToRequester(house.getStatus(), house.getSellerUsername(), requester);
     }
 
-    private boolean isVisibleToRequester(SecondHandHouse house, UserAccount requester) {
-        if (house.getStatus() == ListingStatus.APPROVED) {
+    private boolean isVisibleToRequester(ListingStatus status, String sellerUsername, UserAccount requester) {
+        if (status == ListingStatus.APPROVED) {
             return true;
         }
         if (requester == null) {
@@ -335,8 +1212,8 @@ public class SecondHandHouseService {
         if (requester.getRole() == UserRole.ADMIN) {
             return true;
         }
-        if (house.getSellerUsername() != null
-                && house.getSellerUsername().equalsIgnoreCase(requester.getUsername())) {
+        if (sellerUsername != null
+                && sellerUsername.equalsIgnoreCase(requester.getUsername())) {
             return true;
         }
         return false;
@@ -0,0 +1,146 @@
+package com.example.demo.house;
+
+import com.example.demo.auth.UserAccount;
+import com.example.demo.auth.UserRole;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+public final class SecondHandHouseSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private SecondHandHouseSpecifications() {
+    }
+
+    // 与 isVisibleToRequester 保持一致：游客仅能看到已上架房源，管理员可见全部，卖家额外可见自己的房源
+    public static Specification<SecondHandHouse> visibleTo(UserAccount requester) {
+        return (root, query, cb) -> {
+            if (requester != null && requester.getRole() == UserRole.ADMIN) {
+                return null;
+            }
+            Predicate approved = cb.equal(root.get("status"), ListingStatus.APPROVED);
+            if (requester == null || requester.getUsername() == null) {
+                return approved;
+            }
+            // 房源写入的是账号表中的用户名，requester 也由账号表解析，直接比较原始列以使用 idx_houses_seller_status
+            Predicate ownedByRequester = cb.equal(root.<String>get("sellerUsername"), requester.getUsername());
+            return cb.or(approved, ownedByRequester);
+        };
+    }
+
+    public static Specification<SecondHandHouse> keywordContains(String normalizedKeyword) {
+        return (root, query, cb) -> {
+            if (normalizedKeyword == null || normalizedKeyword.isBlank()) {
+                return null;
+            }
+            String pattern = "%" + escapeLike(normalizedKeyword) + "%";
+            Subquery<Long> keywordMatch = query.subquery(Long.class);
+            Root<SecondHandHouse> keywordRoot = keywordMatch.from(SecondHandHouse.class);
+            Join<SecondHandHouse, String> keywords = keywordRoot.join("keywords");
+            keywordMatch.select(keywordRoot.<Long>get("id"))
+                    .where(
+                            cb.equal(keywordRoot.get("id"), root.get("id")),
+                            cb.like(keywords, pattern, LIKE_ESCAPE)
+                    );
+            return cb.or(
+                    cb.like(cb.lower(root.<String>get("title")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(root.<String>get("address")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(root.<String>get("description")), pattern, LIKE_ESCAPE),
+                    cb.exists(keywordMatch)
+            );
+        };
+    }
+
+    public static Specification<SecondHandHouse> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    public static Specification<SecondHandHouse> idGreaterThan(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.<Long>get("id"), id);
+    }
+
+    public static Specification<SecondHandHouse> priceBetween(BigDecimal min, BigDecimal max) {
+        return rangeOf("price", min, max);
+    }
+
+    public static Specification<SecondHandHouse> areaBetween(BigDecimal min, BigDecimal max) {
+        return rangeOf("area", min, max);
+    }
+
+    // 键集分页：(排序键, id) 严格位于游标之后，配合同方向的 ORDER BY 使用
+    public static Specification<SecondHandHouse> after(HousePageCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            boolean descending = cursor.direction() == Sort.Direction.DESC;
+            Object value = cursor.sortField().parseCursorValue(cursor.sortValue());
+            return switch (cursor.sortField()) {
+                case PRICE, AREA -> keysetAfter(cb, root, cursor.sortField().property(),
+                        (BigDecimal) value, cursor.id(), descending);
+                case LISTING_DATE -> keysetAfter(cb, root, cursor.sortField().property(),
+                        (LocalDate) value, cursor.id(), descending);
+                case UPDATED_AT -> keysetAfter(cb, root, cursor.sortField().property(),
+                        (OffsetDateTime) value, cursor.id(), descending);
+            };
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate keysetAfter(CriteriaBuilder cb,
+                                                                           Root<SecondHandHouse> root,
+                                                                           String attribute,
+                                                                           T value,
+                                                                           long id,
+                                                                           boolean descending) {
+        Path<T> key = root.get(attribute);
+        Path<Long> idPath = root.get("id");
+        if (descending) {
+            return cb.or(
+                    cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(idPath, id))
+            );
+        }
+        return cb.or(
+                cb.greaterThan(key, value),
+                cb.and(cb.equal(key, value), cb.greaterThan(idPath, id))
+        );
+    }
+
+    private static Specification<SecondHandHouse> rangeOf(String attribute, BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            if (min == null && max == null) {
+                return null;
+            }
+            if (min == null) {
+                return cb.lessThanOrEqualTo(root.<BigDecimal>get(attribute), max);
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(root.<BigDecimal>get(attribute), min);
+            }
+            return cb.between(root.<BigDecimal>get(attribute), min, max);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '%' || ch == '_' || ch == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(ch);
+        }
+        return escaped.toString();
+    }
+}
@@ -76,4 +76,10 @@ public record SecondHandHouseView(
                 reservationOwnedByRequester
         );
     }
+
+    public SecondHandHouseView withReservationOwnedByRequester(boolean owned) {
+        return new SecondHandHouseView(id, title, address, latitude, longitude, price, downPayment, area,
+                description, sellerUsername, sellerName, contactNumber, listingDate, imageUrls, keywords, floor,
+                status, reviewedBy, reviewMessage, reviewedAt, sensitiveMasked, reservationActive, owned);
+    }
 }
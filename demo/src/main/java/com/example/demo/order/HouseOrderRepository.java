@@ -1,7 +1,11 @@
 package com.example.demo.order;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +24,18 @@ public interface HouseOrderRepository extends JpaRepository<HouseOrder, Long> {
     List<HouseOrder> findByStatusAndAdminReviewedFalseOrderByCreatedAtAsc(OrderStatus status);
 
     List<HouseOrder> findByStatusInAndAdminReviewedFalseOrderByCreatedAtAsc(List<OrderStatus> statuses);
+
+    @Query("""
+            select new com.example.demo.order.HouseReservationSnapshot(o.house.id, o.buyer.username, o.createdAt)
+            from HouseOrder o
+            where o.house.id in :houseIds
+              and o.status = :status
+            order by o.createdAt desc
+            """)
+    List<HouseReservationSnapshot> findReservationSnapshots(@Param("houseIds") Collection<Long> houseIds,
+                                                            @Param("status") OrderStatus status);
+
+    @Modifying
+    @Query("delete from HouseOrder o where o.house.id in :houseIds")
+    int deleteByHouseIds(@Param("houseIds") Collection<Long> houseIds);
 }
@@ -5,12 +5,16 @@ import com.example.demo.auth.UserAccount;
 import com.example.demo.auth.UserAccountRepository;
 import com.example.demo.auth.UserRole;
 import com.example.demo.conversation.ConversationService;
+import com.example.demo.house.HouseListingChangeType;
+import com.example.demo.house.HouseListingChangedEvent;
+import com.example.demo.house.HouseReservationChangedEvent;
 import com.example.demo.house.ListingStatus;
 import com.example.demo.house.SecondHandHouse;
 import com.example.demo.house.SecondHandHouseRepository;
 import com.example.demo.wallet.WalletService;
 import com.example.demo.wallet.WalletTransactionType;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,17 +39,20 @@ public class HouseOrderService {
     private final UserAccountRepository userAccountRepository;
     private final WalletService walletService;
     private final ConversationService conversationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public HouseOrderService(HouseOrderRepository orderRepository,
                              SecondHandHouseRepository houseRepository,
                              UserAccountRepository userAccountRepository,
                              WalletService walletService,
-                             ConversationService conversationService) {
+                             ConversationService conversationService,
+                             ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.houseRepository = houseRepository;
         this.userAccountRepository = userAccountRepository;
         this.walletService = walletService;
         this.conversationService = conversationService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -125,6 +132,7 @@ public class HouseOrderService {
         order.setAdminReviewedBy(null);
         order.setAdminReviewedAt(null);
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(new HouseReservationChangedEvent(house.getId()));
 
         seller.increaseReputation(1);
         buyer.increaseReputation(1);
@@ -469,7 +477,10 @@ public class HouseOrderService {
         if (message != null && !message.isBlank()) {
             house.setReviewMessage(appendSystemNote(house.getReviewMessage(), message));
         }
+        // @PreUpdate 要到刷新时才执行；先写入更新时间，事件快照中的售出时间才与数据库一致，到期队列据此排期
+        house.setUpdatedAt(OffsetDateTime.now());
         houseRepository.save(house);
+        eventPublisher.publishEvent(HouseListingChangedEvent.of(HouseListingChangeType.SOLD, house));
     }
 
     private void restoreHouseAvailability(SecondHandHouse house, String message) {
@@ -490,6 +501,7 @@ public class HouseOrderService {
             house.setReviewMessage(appendSystemNote(house.getReviewMessage(), message));
         }
         houseRepository.save(house);
+        eventPublisher.publishEvent(HouseListingChangedEvent.of(HouseListingChangeType.REOPENED, house));
     }
 
     private String appendSystemNote(String existing, String note) {
@@ -607,6 +619,7 @@ public class HouseOrderService {
             reservation.markReturned(message);
             reservation.markAdminReviewCompleted(adminAccount.getUsername(), releaseAmount, platformFee, PayoutRecipient.BUYER);
             orderRepository.save(reservation);
+            eventPublisher.publishEvent(new HouseReservationChangedEvent(reservation.getHouse().getId()));
             seller.increaseReputation(2);
             currentBuyer.increaseReputation(2);
             userAccountRepository.save(seller);
@@ -620,6 +633,7 @@ public class HouseOrderService {
         reservation.markAdminReviewCompleted(adminAccount.getUsername(), releaseAmount, platformFee, PayoutRecipient.BUYER);
         reservation.clearSellerRepayment();
         orderRepository.save(reservation);
+        eventPublisher.publishEvent(new HouseReservationChangedEvent(reservation.getHouse().getId()));
 
         seller.recordReservationBreach();
         seller.decreaseReputation(15);
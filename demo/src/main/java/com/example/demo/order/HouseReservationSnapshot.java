@@ -0,0 +1,10 @@
+package com.example.demo.order;
+
+import java.time.OffsetDateTime;
+
+public record HouseReservationSnapshot(
+        Long houseId,
+        String buyerUsername,
+        OffsetDateTime createdAt
+) {
+}
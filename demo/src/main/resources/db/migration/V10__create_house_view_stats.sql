@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS house_view_stats (
+    house_id BIGINT PRIMARY KEY,
+    view_count BIGINT NOT NULL DEFAULT 0,
+    impression_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6) NOT NULL
+);
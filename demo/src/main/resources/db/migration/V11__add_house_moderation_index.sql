@@ -0,0 +1 @@
+CREATE INDEX idx_houses_status_created_at ON second_hand_houses (status, created_at, id);
@@ -0,0 +1,30 @@
+-- 图片集合改为有序列表：按现有行的物理顺序（即写入顺序）回填序号，序号 0 为卖家上传的第一张图（列表封面）
+CREATE TABLE second_hand_house_images_ordered (
+    house_id BIGINT NOT NULL,
+    image_order INT NOT NULL,
+    image_url VARCHAR(500),
+    PRIMARY KEY (house_id, image_order),
+    CONSTRAINT fk_house_images_house FOREIGN KEY (house_id) REFERENCES second_hand_houses (id)
+);
+
+INSERT INTO second_hand_house_images_ordered (house_id, image_order, image_url)
+SELECT house_id, ROW_NUMBER() OVER (PARTITION BY house_id) - 1, image_url
+FROM second_hand_house_images;
+
+DROP TABLE second_hand_house_images;
+RENAME TABLE second_hand_house_images_ordered TO second_hand_house_images;
+
+-- 归档表同样保留图片顺序
+CREATE TABLE second_hand_house_images_archive_ordered (
+    house_id BIGINT NOT NULL,
+    image_order INT NOT NULL,
+    image_url VARCHAR(500) NOT NULL,
+    PRIMARY KEY (house_id, image_order)
+);
+
+INSERT INTO second_hand_house_images_archive_ordered (house_id, image_order, image_url)
+SELECT house_id, ROW_NUMBER() OVER (PARTITION BY house_id) - 1, image_url
+FROM second_hand_house_images_archive;
+
+DROP TABLE second_hand_house_images_archive;
+RENAME TABLE second_hand_house_images_archive_ordered TO second_hand_house_images_archive;
@@ -0,0 +1,4 @@
+CREATE INDEX idx_houses_status_price ON second_hand_houses (status, price);
+CREATE INDEX idx_houses_status_area ON second_hand_houses (status, area);
+CREATE INDEX idx_houses_seller_status ON second_hand_houses (seller_username, status);
+CREATE INDEX idx_house_keywords_keyword ON second_hand_house_keywords (keyword, house_id);
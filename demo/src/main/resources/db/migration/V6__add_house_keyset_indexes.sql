@@ -0,0 +1,2 @@
+CREATE INDEX idx_houses_status_listing_date ON second_hand_houses (status, listing_date, id);
+CREATE INDEX idx_houses_status_updated_at ON second_hand_houses (status, updated_at, id);
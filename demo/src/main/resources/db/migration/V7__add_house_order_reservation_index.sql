@@ -0,0 +1 @@
+CREATE INDEX idx_house_orders_house_status_created ON house_orders (house_id, status, created_at);
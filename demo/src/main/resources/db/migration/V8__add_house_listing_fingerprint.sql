@@ -0,0 +1,16 @@
+ALTER TABLE second_hand_houses
+    ADD COLUMN listing_fingerprint CHAR(64) NULL;
+
+-- 与 ListingFingerprint 保持一致：SHA-256(小写卖家账号 \n 规范化标题 \n 规范化地址)，标题或地址为空时不计算
+UPDATE second_hand_houses
+SET listing_fingerprint = SHA2(CONCAT_WS('\n',
+                                         LOWER(TRIM(seller_username)),
+                                         LOWER(TRIM(REGEXP_REPLACE(title, '[[:space:]]+', ' '))),
+                                         LOWER(TRIM(REGEXP_REPLACE(address, '[[:space:]]+', ' ')))), 256)
+WHERE listing_fingerprint IS NULL
+  AND seller_username IS NOT NULL
+  AND TRIM(seller_username) <> ''
+  AND TRIM(REGEXP_REPLACE(title, '[[:space:]]+', ' ')) <> ''
+  AND TRIM(REGEXP_REPLACE(address, '[[:space:]]+', ' ')) <> '';
+
+CREATE INDEX idx_houses_listing_fingerprint ON second_hand_houses (listing_fingerprint, status);
@@ -0,0 +1,73 @@
+CREATE TABLE IF NOT EXISTS second_hand_houses_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    latitude DOUBLE NULL,
+    longitude DOUBLE NULL,
+    price DECIMAL(15, 2) NOT NULL,
+    down_payment DECIMAL(15, 2) NULL,
+    installment_monthly_payment DECIMAL(15, 2) NULL,
+    installment_months INT NULL,
+    area DECIMAL(10, 2) NOT NULL,
+    floor INT NULL,
+    description TEXT NULL,
+    seller_username VARCHAR(50) NOT NULL,
+    seller_name VARCHAR(100) NULL,
+    contact_number VARCHAR(50) NULL,
+    listing_fingerprint VARCHAR(64) NULL,
+    status VARCHAR(20) NOT NULL,
+    listing_date DATE NOT NULL,
+    reviewed_by VARCHAR(50) NULL,
+    review_message VARCHAR(255) NULL,
+    reviewed_at DATETIME(6) NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    archive_reason VARCHAR(30) NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    INDEX idx_houses_archive_seller (seller_username, id),
+    INDEX idx_houses_archive_listing_date (listing_date)
+);
+
+CREATE TABLE IF NOT EXISTS second_hand_house_images_archive (
+    house_id BIGINT NOT NULL,
+    image_url VARCHAR(500) NOT NULL,
+    INDEX idx_house_images_archive_house (house_id)
+);
+
+CREATE TABLE IF NOT EXISTS second_hand_house_keywords_archive (
+    house_id BIGINT NOT NULL,
+    keyword VARCHAR(50) NOT NULL,
+    INDEX idx_house_keywords_archive_house (house_id)
+);
+
+CREATE TABLE IF NOT EXISTS house_orders_archive (
+    id BIGINT PRIMARY KEY,
+    house_id BIGINT NOT NULL,
+    buyer_username VARCHAR(50) NULL,
+    seller_username VARCHAR(50) NULL,
+    amount DECIMAL(18, 2) NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    progress_stage VARCHAR(30) NOT NULL,
+    admin_hold_amount DECIMAL(18, 2) NOT NULL,
+    platform_fee DECIMAL(18, 2) NOT NULL,
+    released_amount DECIMAL(18, 2) NOT NULL,
+    funds_released_to VARCHAR(20) NULL,
+    admin_reviewed BIT NOT NULL,
+    admin_reviewed_by VARCHAR(50) NULL,
+    admin_reviewed_at DATETIME(6) NULL,
+    return_reason VARCHAR(255) NULL,
+    viewing_time DATETIME(6) NULL,
+    viewing_message VARCHAR(255) NULL,
+    seller_repay_required BIT NOT NULL,
+    seller_repay_amount DECIMAL(18, 2) NOT NULL,
+    seller_repay_reference VARCHAR(50) NULL,
+    seller_repay_description VARCHAR(255) NULL,
+    seller_repay_settled_at DATETIME(6) NULL,
+    buyer_viewing_confirmed BIT NOT NULL,
+    seller_viewing_confirmed BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    INDEX idx_house_orders_archive_house (house_id)
+);
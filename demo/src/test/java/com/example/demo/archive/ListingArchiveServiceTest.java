@@ -0,0 +1,117 @@
+package com.example.demo.archive;
+
+import com.example.demo.auth.UserAccount;
+import com.example.demo.auth.UserAccountRepository;
+import com.example.demo.auth.UserRole;
+import com.example.demo.house.ListingStatus;
+import com.example.demo.house.SecondHandHouse;
+import com.example.demo.order.HouseOrder;
+import com.example.demo.order.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ListingArchiveServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ArchivedHouseRepository archivedHouseRepository;
+
+    @Autowired
+    private ArchivedHouseOrderRepository archivedHouseOrderRepository;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Test
+    void archiveCopiesEveryColumnOfHousesAndTheirOrders() {
+        UserAccount seller = entityManager.persist(account("seller01", UserRole.SELLER));
+        UserAccount buyer = entityManager.persist(account("buyer01", UserRole.BUYER));
+
+        SecondHandHouse house = new SecondHandHouse();
+        house.setTitle("西湖学区房");
+        house.setAddress("杭州市西湖区教工路88号");
+        house.setPrice(new BigDecimal("2800000"));
+        house.setDownPayment(new BigDecimal("900000"));
+        house.setInstallmentMonthlyPayment(new BigDecimal("12000"));
+        house.setInstallmentMonths(60);
+        house.setArea(new BigDecimal("98"));
+        house.setSellerUsername("seller01");
+        house.setSellerName("张三");
+        house.setContactNumber("13800138000");
+        house.setListingDate(LocalDate.now().minusMonths(3));
+        house.setStatus(ListingStatus.SOLD);
+        house.setReviewedBy("admin");
+        house.setReviewMessage("资料齐全");
+        house.setReviewedAt(OffsetDateTime.now().minusMonths(3));
+        house.setImageUrls(List.of("/images/a.jpg"));
+        house.setKeywords(List.of("学区"));
+        entityManager.persist(house);
+
+        HouseOrder order = new HouseOrder();
+        order.setHouse(house);
+        order.setBuyer(buyer);
+        order.setSeller(seller);
+        order.setAmount(new BigDecimal("2800000"));
+        order.setStatus(OrderStatus.PAID);
+        order.setAdminHoldAmount(new BigDecimal("50000"));
+        order.setAdminReviewed(true);
+        order.setAdminReviewedBy("admin");
+        order.setViewingMessage("周六上午看房");
+        order.setSellerRepayAmount(new BigDecimal("1000"));
+        order.setSellerRepayReference("R-001");
+        order.setBuyerViewingConfirmed(true);
+        order.setSellerViewingConfirmed(true);
+        entityManager.persist(order);
+        entityManager.flush();
+
+        ListingArchiveService archiveService = new ListingArchiveService(
+                archivedHouseRepository, archivedHouseOrderRepository, userAccountRepository);
+        assertThat(archiveService.archive(List.of(house.getId()), "SOLD")).isEqualTo(1);
+        entityManager.clear();
+
+        ArchivedHouse archived = archivedHouseRepository.findById(house.getId()).orElseThrow();
+        assertThat(archived)
+                .extracting(ArchivedHouse::getSellerName, ArchivedHouse::getContactNumber,
+                        ArchivedHouse::getInstallmentMonths, ArchivedHouse::getListingFingerprint,
+                        ArchivedHouse::getReviewedBy, ArchivedHouse::getReviewMessage,
+                        ArchivedHouse::getStatus, ArchivedHouse::getArchiveReason)
+                .containsExactly("张三", "13800138000", 60, house.getListingFingerprint(),
+                        "admin", "资料齐全", "SOLD", "SOLD");
+        assertThat(archived.getInstallmentMonthlyPayment()).isEqualByComparingTo("12000");
+        assertThat(archived.getReviewedAt()).isNotNull();
+        assertThat(archived.getImageUrls()).containsExactly("/images/a.jpg");
+        assertThat(archived.getKeywords()).containsExactly("学区");
+
+        ArchivedHouseOrder archivedOrder = archivedHouseOrderRepository.findById(order.getId()).orElseThrow();
+        assertThat(archivedOrder)
+                .extracting(ArchivedHouseOrder::getBuyerUsername, ArchivedHouseOrder::getSellerUsername,
+                        ArchivedHouseOrder::isAdminReviewed, ArchivedHouseOrder::getAdminReviewedBy,
+                        ArchivedHouseOrder::getViewingMessage, ArchivedHouseOrder::getSellerRepayReference,
+                        ArchivedHouseOrder::isBuyerViewingConfirmed, ArchivedHouseOrder::isSellerViewingConfirmed)
+                .containsExactly("buyer01", "seller01", true, "admin", "周六上午看房", "R-001", true, true);
+        assertThat(archivedOrder.getAdminHoldAmount()).isEqualByComparingTo("50000");
+        assertThat(archivedOrder.getSellerRepayAmount()).isEqualByComparingTo("1000");
+    }
+
+    private UserAccount account(String username, UserRole role) {
+        UserAccount account = new UserAccount();
+        account.setUsername(username);
+        account.setPassword("secret");
+        account.setEmail(username + "@example.com");
+        account.setDisplayName(username);
+        account.setRole(role);
+        return account;
+    }
+}
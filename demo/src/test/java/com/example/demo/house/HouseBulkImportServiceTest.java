@@ -0,0 +1,95 @@
+package com.example.demo.house;
+
+import com.example.demo.auth.UserAccount;
+import com.example.demo.auth.UserAccountRepository;
+import com.example.demo.auth.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class HouseBulkImportServiceTest {
+
+    @Autowired
+    private SecondHandHouseRepository repository;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HouseBulkImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new HouseBulkImportService(repository, userAccountRepository, jdbcTemplate, transactionManager,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), event -> {
+                });
+        UserAccount seller = new UserAccount();
+        seller.setUsername("agent01");
+        seller.setPassword("secret");
+        seller.setEmail("agent01@example.com");
+        seller.setDisplayName("中介一号");
+        seller.setRole(UserRole.SELLER);
+        userAccountRepository.saveAndFlush(seller);
+    }
+
+    @Test
+    void reportsImportedInvalidAndDuplicateRowsInOrder() {
+        SecondHandHouse existing = new SecondHandHouse();
+        existing.setTitle("滨江江景房");
+        existing.setAddress("杭州市滨江区江南大道1号");
+        existing.setPrice(new BigDecimal("5200000"));
+        existing.setDownPayment(new BigDecimal("1600000"));
+        existing.setArea(new BigDecimal("120"));
+        existing.setSellerUsername("agent01");
+        existing.setSellerName("中介一号");
+        existing.setContactNumber("13800138000");
+        existing.setListingDate(LocalDate.now().plusDays(2));
+        repository.saveAndFlush(existing);
+
+        String listingDate = LocalDate.now().plusDays(7).toString();
+        String csv = "title,address,price,downPayment,area,sellerName,contactNumber,listingDate,keywords\n"
+                + "西湖学区房,杭州市西湖区教工路88号,2800000,900000,98,中介一号,13800138000," + listingDate + ",学区|地铁\n"
+                + "拱墅大平层,杭州市拱墅区莫干山路1号,abc,900000,140,中介一号,13800138000," + listingDate + ",\n"
+                + "西湖学区房,杭州市西湖区教工路88号,2750000,900000,98,中介一号,13800138000," + listingDate + ",\n"
+                + "滨江江景房,杭州市滨江区江南大道1号,5100000,1600000,120,中介一号,13800138000," + listingDate + ",\n"
+                + ",杭州市上城区解放路2号,3000000,900000,88,中介一号,13800138000," + listingDate + ",\n";
+
+        HouseImportReport report = importService.importListings("agent01", HouseImportFormat.CSV, new StringReader(csv));
+
+        assertThat(report.rows())
+                .extracting(HouseImportRowResult::row, HouseImportRowResult::outcome)
+                .containsExactly(
+                        tuple(1, HouseImportRowResult.Outcome.IMPORTED),
+                        tuple(2, HouseImportRowResult.Outcome.INVALID),
+                        tuple(3, HouseImportRowResult.Outcome.DUPLICATE),
+                        tuple(4, HouseImportRowResult.Outcome.DUPLICATE),
+                        tuple(5, HouseImportRowResult.Outcome.INVALID));
+        assertThat(report).extracting(HouseImportReport::total, HouseImportReport::imported,
+                        HouseImportReport::duplicates, HouseImportReport::invalid, HouseImportReport::skipped)
+                .containsExactly(5, 1, 2, 2, 0);
+
+        SecondHandHouse imported = repository.findById(report.rows().get(0).houseId()).orElseThrow();
+        assertThat(imported.getSellerUsername()).isEqualTo("agent01");
+        assertThat(imported.getStatus()).isEqualTo(ListingStatus.PENDING_REVIEW);
+        assertThat(imported.getKeywords()).containsExactlyInAnyOrder("学区", "地铁");
+    }
+}
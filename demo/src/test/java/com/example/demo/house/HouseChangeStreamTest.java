@@ -0,0 +1,75 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HouseChangeStreamTest {
+
+    private final HouseChangeStream stream = new HouseChangeStream();
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void translatesListingChangesIntoPublicVisibilityEvents() {
+        long start = stream.lastEventId();
+        stream.onListingChanged(HouseListingChangedEvent.of(HouseListingChangeType.CREATED,
+                house(1L, ListingStatus.PENDING_REVIEW)));
+        stream.onListingChanged(HouseListingChangedEvent.of(HouseListingChangeType.REVIEWED,
+                house(1L, ListingStatus.APPROVED)));
+        stream.onListingChanged(HouseListingChangedEvent.of(HouseListingChangeType.UPDATED,
+                house(1L, ListingStatus.PENDING_REVIEW)));
+        stream.onReservationChanged(new HouseReservationChangedEvent(2L));
+        stream.onListingChanged(HouseListingChangedEvent.of(HouseListingChangeType.SOLD,
+                house(2L, ListingStatus.SOLD)));
+        stream.onListingChanged(HouseListingChangedEvent.removed(3L));
+
+        List<HouseStreamEvent> events = stream.eventsAfter(start);
+        assertThat(events)
+                .extracting(HouseStreamEvent::type)
+                .containsExactly(HouseStreamEventType.APPROVED, HouseStreamEventType.REMOVED,
+                        HouseStreamEventType.RESERVATION_CHANGED, HouseStreamEventType.SOLD,
+                        HouseStreamEventType.REMOVED);
+        assertThat(events.get(0).title()).isEqualTo("房源1");
+        assertThat(events.get(1).title()).isNull();
+        assertThat(stream.eventsAfter(events.get(2).id()))
+                .extracting(HouseStreamEvent::houseId)
+                .containsExactly(2L, 3L);
+        assertThat(stream.eventsAfter(stream.lastEventId())).isEmpty();
+    }
+
+    @Test
+    void resumeIsRejectedOnceEventsFallOutOfTheReplayBuffer() {
+        long start = stream.lastEventId();
+        for (long i = 0; i <= HouseChangeStream.REPLAY_CAPACITY; i++) {
+            stream.onReservationChanged(new HouseReservationChangedEvent(i));
+        }
+
+        assertThat(stream.eventsAfter(start)).isNull();
+        assertThat(stream.eventsAfter(start + 1)).hasSize(HouseChangeStream.REPLAY_CAPACITY);
+        assertThat(stream.eventsAfter(stream.lastEventId() + 1)).isNull();
+    }
+
+    private SecondHandHouse house(Long id, ListingStatus status) {
+        SecondHandHouse house = new SecondHandHouse();
+        house.setId(id);
+        house.setTitle("房源" + id);
+        house.setAddress("杭州市");
+        house.setPrice(new BigDecimal("2800000"));
+        house.setArea(new BigDecimal("98"));
+        house.setSellerUsername("seller01");
+        house.setStatus(status);
+        house.setListingDate(LocalDate.now());
+        house.setUpdatedAt(OffsetDateTime.now());
+        return house;
+    }
+}
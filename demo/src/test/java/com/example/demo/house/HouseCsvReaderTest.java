@@ -0,0 +1,45 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HouseCsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsEscapedQuotesEmbeddedNewlinesAndSkipsBom() throws IOException {
+        String csv = "\uFEFFtitle,description\r\n"
+                + "\"西湖\"\"学区\"\"房\",\"南北通透\n近地铁\"\r\n"
+                + "\r\n"
+                + "滨江江景房,\n";
+
+        List<List<String>> records = readAll(csv);
+
+        assertThat(records).containsExactly(
+                List.of("title", "description"),
+                List.of("西湖\"学区\"房", "南北通透\n近地铁"),
+                List.of("滨江江景房", ""));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThatThrownBy(() -> readAll("title\n\"西湖学区房\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("引号未闭合");
+    }
+
+    private List<List<String>> readAll(String csv) throws IOException {
+        HouseCsvReader reader = new HouseCsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
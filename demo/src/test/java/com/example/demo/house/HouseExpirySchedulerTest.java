@@ -0,0 +1,99 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HouseExpirySchedulerTest {
+
+    private static final ZoneId ZONE = ZoneOffset.ofHours(8);
+
+    @Test
+    void approvedListingsExpireWithinAnHourAfterTheCutOff() {
+        Instant dayStart = LocalDate.of(2024, 2, 11).atStartOfDay(ZONE).toInstant();
+        Instant first = HouseExpiryScheduler.dueAt(snapshot(1L, ListingStatus.APPROVED, LocalDate.of(2024, 1, 10), null), ZONE);
+        Instant second = HouseExpiryScheduler.dueAt(snapshot(2L, ListingStatus.APPROVED, LocalDate.of(2024, 1, 10), null), ZONE);
+
+        assertThat(first).isBetween(dayStart, dayStart.plus(Duration.ofHours(1)));
+        assertThat(second).isBetween(dayStart, dayStart.plus(Duration.ofHours(1)));
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void replacedAndRemovedTasksLeaveTheQueue() {
+        HouseExpiryScheduler scheduler = new HouseExpiryScheduler(null);
+        LocalDate listedToday = LocalDate.now();
+
+        scheduler.onListingChanged(new HouseListingChangedEvent(HouseListingChangeType.REVIEWED, 5L,
+                snapshot(5L, ListingStatus.APPROVED, listedToday, null)));
+        scheduler.onListingChanged(new HouseListingChangedEvent(HouseListingChangeType.UPDATED, 5L,
+                snapshot(5L, ListingStatus.APPROVED, listedToday.plusDays(3), null)));
+        assertThat(scheduler.pendingCount()).isEqualTo(1);
+        assertThat(scheduler.queuedCount()).isEqualTo(1);
+
+        scheduler.onListingChanged(HouseListingChangedEvent.removed(5L));
+        assertThat(scheduler.pendingCount()).isZero();
+        assertThat(scheduler.queuedCount()).isZero();
+    }
+
+    @Test
+    void soldListingsExpireSevenDaysAfterLastUpdateAndOthersNever() {
+        OffsetDateTime soldAt = OffsetDateTime.of(2024, 3, 1, 10, 0, 0, 0, ZoneOffset.ofHours(8));
+
+        assertThat(HouseExpiryScheduler.dueAt(snapshot(3L, ListingStatus.SOLD, LocalDate.of(2024, 1, 1), soldAt), ZONE))
+                .isEqualTo(soldAt.plusDays(7).plusSeconds(1).toInstant());
+        assertThat(HouseExpiryScheduler.dueAt(snapshot(4L, ListingStatus.PENDING_REVIEW, LocalDate.of(2024, 1, 1), soldAt), ZONE))
+                .isNull();
+    }
+
+    @Test
+    void soldListingRejectedByTheDatabaseCheckIsRequeuedFromItsActualUpdateTime() throws InterruptedException {
+        OffsetDateTime soldNow = OffsetDateTime.now();
+        List<List<Long>> checked = new CopyOnWriteArrayList<>();
+        HouseListingCleanupService cleanupService = new HouseListingCleanupService(null, null, null, null, null, false) {
+            @Override
+            public List<Long> archiveExpiredSoldListings(List<Long> houseIds) {
+                return List.of();
+            }
+
+            @Override
+            public Map<Long, OffsetDateTime> soldUpdatedAt(List<Long> houseIds) {
+                checked.add(houseIds);
+                return Map.of(6L, soldNow);
+            }
+        };
+        HouseExpiryScheduler scheduler = new HouseExpiryScheduler(cleanupService);
+
+        // 事件快照仍带着售出前的更新时间，任务立即到期，但数据库复核发现刚售出
+        scheduler.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(6L, ListingStatus.SOLD, LocalDate.now().minusMonths(3), soldNow.minusDays(30)))));
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while ((checked.isEmpty() || scheduler.pendingCount() == 0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            scheduler.shutdown();
+        }
+
+        assertThat(checked).containsExactly(List.of(6L));
+        assertThat(scheduler.pendingCount()).isEqualTo(1);
+        assertThat(scheduler.queuedCount()).isEqualTo(1);
+    }
+
+    private HouseListingSnapshot snapshot(Long id, ListingStatus status, LocalDate listingDate, OffsetDateTime updatedAt) {
+        return new HouseListingSnapshot(id, "房源" + id, "杭州市", null, List.of(), "seller01",
+                status, BigDecimal.valueOf(200), BigDecimal.valueOf(90), 5, null, null, listingDate, updatedAt);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class HouseFacetCounterTest {
+
+    @Test
+    void bucketsPricesInYuanAndAreaFloorAndTags() {
+        HouseFacetCounter counter = new HouseFacetCounter();
+        counter.accept(house("850000", "45", 2, List.of("学区")));
+        counter.accept(house("2000000", "89", 6, List.of("学区", "地铁")));
+        counter.accept(house("2800000", "98", 15, List.of("地铁")));
+        counter.accept(house("12000000", "180", null, List.of()));
+
+        HouseSearchFacets facets = counter.toFacets();
+
+        assertThat(facets.price())
+                .extracting(HouseFacetBucket::key, HouseFacetBucket::count)
+                .containsExactly(
+                        tuple("*-1000000", 1L),
+                        tuple("1000000-2000000", 0L),
+                        tuple("2000000-3000000", 2L),
+                        tuple("3000000-5000000", 0L),
+                        tuple("5000000-8000000", 0L),
+                        tuple("8000000-*", 1L));
+        assertThat(facets.price().get(2).from()).isEqualByComparingTo("2000000");
+        assertThat(facets.area())
+                .extracting(HouseFacetBucket::count)
+                .containsExactly(1L, 0L, 1L, 1L, 0L, 1L);
+        assertThat(facets.floor())
+                .extracting(HouseFacetBucket::count)
+                .containsExactly(1L, 1L, 0L, 1L, 0L);
+        assertThat(facets.tags())
+                .extracting(HouseFacetBucket::key, HouseFacetBucket::count)
+                .containsExactly(tuple("地铁", 2L), tuple("学区", 2L));
+    }
+
+    private SecondHandHouse house(String price, String area, Integer floor, List<String> keywords) {
+        SecondHandHouse house = new SecondHandHouse();
+        house.setPrice(new BigDecimal(price));
+        house.setArea(new BigDecimal(area));
+        house.setFloor(floor);
+        house.setKeywords(keywords);
+        return house;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HouseGeoIndexTest {
+
+    private final HouseGeoIndex index = new HouseGeoIndex();
+
+    @Test
+    void findsApprovedListingsByRadiusAndBounds() {
+        index.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(1L, ListingStatus.APPROVED, 30.2741, 120.1551),
+                snapshot(2L, ListingStatus.APPROVED, 30.2900, 120.1600),
+                snapshot(3L, ListingStatus.APPROVED, 30.5000, 120.5000),
+                snapshot(4L, ListingStatus.PENDING_REVIEW, 30.2745, 120.1555)
+        )));
+
+        assertThat(index.nearby(30.2740, 120.1550, 3, 10))
+                .extracting(HouseLocationView::id)
+                .containsExactly(1L, 2L);
+        assertThat(index.withinBounds(30.0, 120.0, 30.28, 120.2, 10))
+                .extracting(HouseLocationView::id)
+                .containsExactly(1L);
+
+        index.onListingChanged(new HouseListingChangedEvent(HouseListingChangeType.SOLD, 1L,
+                snapshot(1L, ListingStatus.SOLD, 30.2741, 120.1551)));
+        assertThat(index.nearby(30.2740, 120.1550, 3, 10))
+                .extracting(HouseLocationView::id)
+                .containsExactly(2L);
+    }
+
+    private HouseListingSnapshot snapshot(Long id, ListingStatus status, double latitude, double longitude) {
+        return new HouseListingSnapshot(id, "房源" + id, "杭州市", null, List.of(), "seller01",
+                status, new BigDecimal("2800000"), new BigDecimal("98"), 6,
+                latitude, longitude, LocalDate.now(), OffsetDateTime.now());
+    }
+}
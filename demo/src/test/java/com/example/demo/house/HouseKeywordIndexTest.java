@@ -0,0 +1,93 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HouseKeywordIndexTest {
+
+    private final HouseKeywordIndex index = new HouseKeywordIndex();
+
+    @Test
+    void matchesChineseBigramsLatinWordsAndTags() {
+        index.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(1L, "西湖区学区房", "杭州市教工路88号", "南北通透 near metro", List.of("满五唯一")),
+                snapshot(2L, "滨江江景房", "杭州市滨江区江南大道", "精装修", List.of("地铁"))
+        )));
+
+        assertThat(index.search("西湖")).containsExactly(1);
+        assertThat(index.search("湖")).containsExactly(1);
+        assertThat(index.search("杭州")).containsExactly(1, 2);
+        assertThat(index.search("METRO")).containsExactly(1);
+        // 英文数字按整词索引，词内部分匹配由 LIKE 查询负责
+        assertThat(index.search("metr")).isEmpty();
+        assertThat(HouseTextTokenizer.containsWordTerms("西湖 metr")).isTrue();
+        assertThat(HouseTextTokenizer.containsWordTerms("西湖 学区")).isFalse();
+        assertThat(index.search("地铁")).containsExactly(2);
+        assertThat(index.search("杭州 地铁")).containsExactly(2);
+        assertThat(index.search("上海")).isEmpty();
+        assertThat(index.search("  ")).isNull();
+        assertThat(index.searchDocuments("杭州", snapshot -> snapshot.keywords().contains("地铁")))
+                .extracting(HouseListingSnapshot::id)
+                .containsExactly(2L);
+        assertThat(index.filterDocuments(snapshot -> true))
+                .extracting(HouseListingSnapshot::id)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void reindexesAndRemovesListingsIncrementally() {
+        index.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(1L, "西湖区学区房", "杭州市教工路88号", null, List.of())
+        )));
+
+        index.onListingChanged(new HouseListingChangedEvent(HouseListingChangeType.UPDATED, 1L,
+                snapshot(1L, "拱墅区大平层", "杭州市莫干山路1号", null, List.of())));
+        assertThat(index.search("西湖")).isEmpty();
+        assertThat(index.search("大平层")).containsExactly(1);
+
+        index.onListingChanged(HouseListingChangedEvent.removed(1L));
+        assertThat(index.search("大平层")).isEmpty();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatchesAndKeepsTopK() {
+        index.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(1L, "精装两居", "杭州市文一路", "临近西湖", List.of()),
+                snapshot(2L, "西湖边精装两居", "杭州市北山路", "安静", List.of()),
+                snapshot(3L, "毛坯三居", "杭州市西湖大道", "采光好", List.of())
+        )));
+
+        HouseKeywordIndex.KeywordMatches matches = index.scoredSearch("西湖");
+        HouseTopKSelector selector = new HouseTopKSelector(2);
+        for (int i = 0; i < matches.docIds().length; i++) {
+            selector.offer(matches.docIds()[i], matches.scores()[i]);
+        }
+
+        assertThat(matches.docIds()).containsExactly(1, 2, 3);
+        assertThat(selector.drainDescending()).containsExactly(2L, 3L);
+        assertThat(index.scoredSearch("西湖", snapshot -> snapshot.id() != 2L).docIds()).containsExactly(1, 3);
+    }
+
+    @Test
+    void scoredSearchForUnindexedTermReturnsNoMatches() {
+        index.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(1L, "西湖边精装两居", "杭州市北山路", "安静", List.of()))));
+
+        HouseKeywordIndex.KeywordMatches matches = index.scoredSearch("滨江");
+        assertThat(matches.docIds()).isEmpty();
+        assertThat(matches.scores()).isEmpty();
+        assertThat(index.scoredSearch("西湖 penthouse").docIds()).isEmpty();
+    }
+
+    private HouseListingSnapshot snapshot(Long id, String title, String address, String description, List<String> keywords) {
+        return new HouseListingSnapshot(id, title, address, description, keywords, "seller01",
+                ListingStatus.APPROVED, new BigDecimal("2800000"), new BigDecimal("98"), 6,
+                30.27, 120.15, LocalDate.now(), OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class HouseNearDuplicateIndexTest {
+
+    @Test
+    void findsNearDuplicatesAcrossSellersAndSkipsRejectedListings() {
+        HouseNearDuplicateIndex index = new HouseNearDuplicateIndex();
+        index.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(1L, "西湖区教工路精装两居室", "杭州市西湖区教工路88号", "seller01",
+                        ListingStatus.APPROVED, 30.2741, 120.1551),
+                snapshot(2L, "西湖区教工路精装两居室 急售", "杭州市西湖区教工路88号", "seller02",
+                        ListingStatus.PENDING_REVIEW, 30.2742, 120.1552),
+                snapshot(3L, "滨江区江南大道毛坯三居", "杭州市滨江区江南大道100号", "seller03",
+                        ListingStatus.APPROVED, 30.2000, 120.2100),
+                snapshot(4L, "西湖区教工路精装两居室", "杭州市西湖区教工路88号", "seller04",
+                        ListingStatus.REJECTED, 30.2741, 120.1551))));
+
+        assertThat(index.findSimilarTo(2L))
+                .extracting(HouseDuplicateCandidate::id, HouseDuplicateCandidate::sellerUsername)
+                .containsExactly(tuple(1L, "seller01"));
+        assertThat(index.findSimilarTo(3L)).isEmpty();
+        assertThat(index.findSimilarTo(4L)).isEmpty();
+
+        index.onListingChanged(HouseListingChangedEvent.removed(1L));
+        assertThat(index.findSimilarTo(2L)).isEmpty();
+    }
+
+    private HouseListingSnapshot snapshot(Long id, String title, String address, String seller,
+                                          ListingStatus status, Double latitude, Double longitude) {
+        return new HouseListingSnapshot(id, title, address, "南北通透，近地铁", List.of("学区"), seller, status,
+                new BigDecimal("2800000"), new BigDecimal("98"), 6, latitude, longitude,
+                LocalDate.now(), OffsetDateTime.now());
+    }
+}
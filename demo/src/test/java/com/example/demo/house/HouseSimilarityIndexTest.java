@@ -0,0 +1,49 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HouseSimilarityIndexTest {
+
+    private final HouseSimilarityIndex index = new HouseSimilarityIndex();
+
+    @Test
+    void ranksApprovedListingsByFeatureDistanceAndFollowsStatusChanges() {
+        index.onListingsReloaded(new HouseListingsReloadedEvent(List.of(
+                snapshot(1L, ListingStatus.APPROVED, "2800000", "98", 30.2741, 120.1551, List.of("学区")),
+                snapshot(2L, ListingStatus.APPROVED, "2900000", "100", 30.2760, 120.1570, List.of("学区")),
+                snapshot(3L, ListingStatus.APPROVED, "3100000", "105", 30.2900, 120.1700, List.of("地铁")),
+                snapshot(4L, ListingStatus.APPROVED, "9800000", "260", 30.5000, 120.5000, List.of("别墅")),
+                snapshot(5L, ListingStatus.PENDING_REVIEW, "2800000", "98", 30.2741, 120.1551, List.of("学区"))
+        )));
+
+        assertThat(index.similarTo(1L, 2))
+                .extracting(HouseSimilarView::id)
+                .containsExactly(2L, 3L);
+        assertThat(index.similarTo(5L, 2)).isNull();
+
+        index.onListingChanged(new HouseListingChangedEvent(HouseListingChangeType.SOLD, 2L,
+                snapshot(2L, ListingStatus.SOLD, "2900000", "100", 30.2760, 120.1570, List.of("学区"))));
+        List<HouseSimilarView> afterSale = index.similarTo(1L, 3);
+        assertThat(afterSale).extracting(HouseSimilarView::id).containsExactly(3L, 4L);
+        assertThat(afterSale.get(0).similarity()).isGreaterThan(afterSale.get(1).similarity());
+
+        assertThat(index.similarTo(snapshot(2L, ListingStatus.SOLD, "2900000", "100", 30.2760, 120.1570,
+                List.of("学区")), 1))
+                .extracting(HouseSimilarView::id)
+                .containsExactly(1L);
+    }
+
+    private HouseListingSnapshot snapshot(Long id, ListingStatus status, String price, String area,
+                                          double latitude, double longitude, List<String> keywords) {
+        return new HouseListingSnapshot(id, "房源" + id, "杭州市", null, keywords, "seller01",
+                status, new BigDecimal(price), new BigDecimal(area), 6,
+                latitude, longitude, LocalDate.now(), OffsetDateTime.now());
+    }
+}
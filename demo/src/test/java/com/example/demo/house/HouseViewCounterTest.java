@@ -0,0 +1,89 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HouseViewCounterTest {
+
+    @Test
+    void flushDrainsPendingCountsIntoOneBatchAndPublishesNewTotals() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+        List<Object> events = new ArrayList<>();
+        HouseViewCounter counter = new HouseViewCounter(null, jdbcTemplate, events::add);
+
+        counter.recordView(1L);
+        counter.recordView(1L);
+        counter.recordImpressions(List.of(1L, 2L));
+        counter.flush();
+
+        assertThat(jdbcTemplate.batches).singleElement()
+                .satisfies(rows -> assertThat(rows)
+                        .containsExactlyInAnyOrder(new long[]{1L, 2L, 1L}, new long[]{2L, 0L, 1L}));
+        assertThat(counter.views(1L)).isEqualTo(2);
+        assertThat(counter.impressions(2L)).isEqualTo(1);
+        assertThat(events).containsExactly(new HousePopularityChangedEvent(Map.of(1L, 2L)));
+
+        counter.flush();
+        assertThat(jdbcTemplate.batches).hasSize(1);
+    }
+
+    @Test
+    void failedFlushRestoresPendingCountsForTheNextRound() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+        List<Object> events = new ArrayList<>();
+        HouseViewCounter counter = new HouseViewCounter(null, jdbcTemplate, events::add);
+
+        counter.recordView(1L);
+        jdbcTemplate.failNext = true;
+        counter.flush();
+
+        assertThat(counter.views(1L)).isEqualTo(1);
+        assertThat(events).isEmpty();
+
+        counter.recordView(1L);
+        counter.flush();
+        assertThat(jdbcTemplate.batches).singleElement()
+                .satisfies(rows -> assertThat(rows).containsExactly(new long[]{1L, 2L, 0L}));
+        assertThat(counter.views(1L)).isEqualTo(2);
+        assertThat(events).containsExactly(new HousePopularityChangedEvent(Map.of(1L, 2L)));
+    }
+
+    @Test
+    void suggestionWeightOnlyChangesAtPowersOfTwo() {
+        assertThat(HouseViewCounter.suggestionWeight(0)).isEqualTo(1);
+        assertThat(HouseViewCounter.suggestionWeight(1)).isEqualTo(1);
+        assertThat(HouseViewCounter.suggestionWeight(2)).isEqualTo(2);
+        assertThat(HouseViewCounter.suggestionWeight(3)).isEqualTo(2);
+        assertThat(HouseViewCounter.suggestionWeight(4)).isEqualTo(3);
+        assertThat(HouseViewCounter.suggestionWeight(1023)).isEqualTo(10);
+        assertThat(HouseViewCounter.suggestionWeight(1024)).isEqualTo(11);
+    }
+
+    // 不连数据库：记录每次批量写入的行，按需模拟一次写入失败
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<List<long[]>> batches = new ArrayList<>();
+        private boolean failNext;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            if (failNext) {
+                failNext = false;
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            batches.add(new ArrayList<>((Collection<long[]>) batchArgs));
+            return new int[0][];
+        }
+    }
+}
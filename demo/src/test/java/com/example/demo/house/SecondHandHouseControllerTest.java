@@ -0,0 +1,88 @@
+package com.example.demo.house;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = SecondHandHouseController.class)
+class SecondHandHouseControllerTest {
+
+    private static final String ETAG = "\"h1-68f1c2a0-fan\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SecondHandHouseService service;
+
+    @MockitoBean
+    private HouseBulkImportService bulkImportService;
+
+    @MockitoBean
+    private HouseChangeStream changeStream;
+
+    @Test
+    @DisplayName("GET /api/houses/{id} returns an ETag and counts a view")
+    void detailReturnsETagAndCountsView() throws Exception {
+        when(service.detailETag(1L, null)).thenReturn(ETAG);
+        when(service.viewById(1L, null)).thenReturn(SecondHandHouseView.fromEntity(house(), false));
+
+        mockMvc.perform(get("/api/houses/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.title").value("西湖学区房"));
+
+        verify(service).recordView(1L);
+    }
+
+    @Test
+    @DisplayName("GET /api/houses/{id} with a matching If-None-Match returns 304 and still counts a view")
+    void notModifiedDetailStillCountsView() throws Exception {
+        when(service.detailETag(1L, null)).thenReturn(ETAG);
+
+        mockMvc.perform(get("/api/houses/1").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/houses/1").param("fields", "title")
+                        .header(HttpHeaders.IF_NONE_MATCH, HouseViewField.tagETag(ETAG, HouseViewField.parse("title"))))
+                .andExpect(status().isNotModified());
+
+        verify(service, times(2)).recordView(1L);
+        verify(service, never()).viewById(1L, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/houses/{id} does not count views of hidden listings")
+    void hiddenListingIsNotCounted() throws Exception {
+        when(service.detailETag(2L, null)).thenReturn(null);
+        when(service.viewById(2L, null)).thenThrow(new SecondHandHouseNotFoundException(2L));
+
+        mockMvc.perform(get("/api/houses/2"))
+                .andExpect(status().isNotFound());
+
+        verify(service, never()).recordView(2L);
+    }
+
+    private SecondHandHouse house() {
+        SecondHandHouse house = new SecondHandHouse();
+        house.setTitle("西湖学区房");
+        house.setAddress("杭州市西湖区教工路88号");
+        house.setPrice(new BigDecimal("2800000"));
+        house.setStatus(ListingStatus.APPROVED);
+        return house;
+    }
+}
@@ -1,13 +1,24 @@
 package com.example.demo.house;
 
+import com.example.demo.auth.UserAccount;
+import com.example.demo.auth.UserRole;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 class SecondHandHousePersistenceTest {
@@ -15,6 +26,9 @@ class SecondHandHousePersistenceTest {
     @Autowired
     private SecondHandHouseRepository repository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void persistsHouseWithoutCertificateColumnAndDefaultsStatus() {
         SecondHandHouse house = new SecondHandHouse();
@@ -37,4 +51,152 @@ class SecondHandHousePersistenceTest {
         assertThat(reloaded.getStatus()).isEqualTo(ListingStatus.PENDING_REVIEW);
         assertThat(reloaded.getAddress()).isEqualTo("测试城市大道1号");
     }
+
+    @Test
+    void searchSpecificationsFilterVisibilityKeywordAndPriceInQuery() {
+        SecondHandHouse approved = newHouse("西湖学区房", "杭州市西湖区教工路88号", "2800000", List.of("学区"));
+        approved.setStatus(ListingStatus.APPROVED);
+        SecondHandHouse pending = newHouse("西湖景观房", "杭州市西湖区北山街1号", "5200000", List.of());
+        repository.saveAndFlush(approved);
+        repository.saveAndFlush(pending);
+
+        Specification<SecondHandHouse> anonymousSearch = Specification
+                .where(SecondHandHouseSpecifications.visibleTo(null))
+                .and(SecondHandHouseSpecifications.keywordContains("西湖"));
+        assertThat(repository.findAll(anonymousSearch))
+                .extracting(SecondHandHouse::getTitle)
+                .containsExactly("西湖学区房");
+
+        UserAccount seller = new UserAccount();
+        seller.setUsername("seller01");
+        seller.setRole(UserRole.SELLER);
+        assertThat(repository.findAll(Specification.where(SecondHandHouseSpecifications.visibleTo(seller))
+                .and(SecondHandHouseSpecifications.keywordContains("西湖"))))
+                .extracting(SecondHandHouse::getTitle)
+                .containsExactlyInAnyOrder("西湖学区房", "西湖景观房");
+
+        SecondHandHouse loft = newHouse("Loft Apartment", "杭州市滨江区江南大道100号", "3100000", List.of());
+        repository.saveAndFlush(loft);
+        assertThat(repository.findAll(SecondHandHouseSpecifications.keywordContains("apart")))
+                .extracting(SecondHandHouse::getTitle)
+                .containsExactly("Loft Apartment");
+
+        Specification<SecondHandHouse> keywordAndPrice = Specification
+                .where(SecondHandHouseSpecifications.keywordContains("学区"))
+                .and(SecondHandHouseSpecifications.priceBetween(new BigDecimal("3000000"), null));
+        assertThat(repository.findAll(keywordAndPrice)).isEmpty();
+    }
+
+    @Test
+    void listingFingerprintMatchesNormalizedTitleAndAddress() {
+        SecondHandHouse saved = repository.saveAndFlush(
+                newHouse("西湖  学区房 ", "杭州市西湖区教工路88号", "2800000", List.of()));
+
+        String fingerprint = ListingFingerprint.of("SELLER01", "西湖 学区房", " 杭州市西湖区教工路88号");
+        assertThat(saved.getListingFingerprint()).isEqualTo(fingerprint);
+        assertThat(repository.existsByListingFingerprintAndStatusNot(fingerprint, ListingStatus.REJECTED)).isTrue();
+        assertThat(repository.existsByListingFingerprintAndStatusNotAndIdNot(
+                fingerprint, ListingStatus.REJECTED, saved.getId())).isFalse();
+    }
+
+    @Test
+    void summaryProjectionReturnsCardColumnsAndImageRefs() {
+        SecondHandHouse approved = newHouse("西湖学区房", "杭州市西湖区教工路88号", "2800000", List.of("学区"));
+        approved.setStatus(ListingStatus.APPROVED);
+        approved.setImageUrls(List.of("/images/d.jpg", "/images/cover.jpg", "/images/e.jpg"));
+        SecondHandHouse pending = newHouse("西湖景观房", "杭州市西湖区北山街1号", "5200000", List.of());
+        repository.saveAndFlush(approved);
+        repository.saveAndFlush(pending);
+
+        List<HouseSummaryView> summaries = repository.findSummaries(
+                SecondHandHouseSpecifications.visibleTo(null), 10);
+        assertThat(summaries)
+                .extracting(HouseSummaryView::title, HouseSummaryView::status)
+                .containsExactly(tuple("西湖学区房", ListingStatus.APPROVED));
+        assertThat(summaries.get(0).price()).isEqualByComparingTo("2800000");
+        assertThat(repository.findCoverRefs(List.of(approved.getId(), pending.getId())))
+                .containsExactly(new HouseImageRef(approved.getId(), "/images/d.jpg"));
+        assertThat(repository.findImageRefs(List.of(approved.getId()))).hasSize(3);
+    }
+
+    @Test
+    void columnProjectionSelectsOnlyRequestedAttributes() {
+        SecondHandHouse approved = newHouse("西湖学区房", "杭州市西湖区教工路88号", "2800000", List.of("学区", "地铁"));
+        approved.setStatus(ListingStatus.APPROVED);
+        repository.saveAndFlush(approved);
+        repository.saveAndFlush(newHouse("西湖景观房", "杭州市西湖区北山街1号", "5200000", List.of()));
+
+        List<Tuple> rows = repository.findColumns(SecondHandHouseSpecifications.visibleTo(null),
+                List.of("id", "title", "price"), 10);
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getElements()).extracting(TupleElement::getAlias)
+                .containsExactly("id", "title", "price");
+        assertThat(rows.get(0).get("title")).isEqualTo("西湖学区房");
+        assertThat(repository.findKeywordRefs(List.of(approved.getId())))
+                .extracting(HouseKeywordRef::keyword)
+                .containsExactlyInAnyOrder("学区", "地铁");
+        assertThat(HouseViewField.parse(" title, imageUrls ,PRICE"))
+                .containsExactly(HouseViewField.TITLE, HouseViewField.PRICE, HouseViewField.IMAGE_URLS);
+    }
+
+    @Test
+    void detailedBatchLoadsEachListingOnceWithItsImages() {
+        SecondHandHouse first = newHouse("西湖学区房", "杭州市西湖区教工路88号", "2800000", List.of("学区"));
+        first.setImageUrls(List.of("/images/a.jpg", "/images/b.jpg"));
+        SecondHandHouse second = newHouse("西湖景观房", "杭州市西湖区北山街1号", "5200000", List.of());
+        repository.saveAndFlush(first);
+        repository.saveAndFlush(second);
+        entityManager.clear();
+
+        List<SecondHandHouse> houses = repository.findDetailedByIdIn(List.of(second.getId(), first.getId(), -1L));
+        assertThat(houses).extracting(SecondHandHouse::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(houses).allSatisfy(house -> assertThat(Hibernate.isInitialized(house.getImageUrls())).isTrue());
+        assertThat(houses).filteredOn(house -> house.getId().equals(first.getId()))
+                .singleElement()
+                .satisfies(house -> assertThat(house.getImageUrls()).containsExactly("/images/a.jpg", "/images/b.jpg"));
+    }
+
+    @Test
+    void moderationQueuePagesPendingListingsAndBulkReviewSkipsReviewedOnes() {
+        SecondHandHouse first = repository.saveAndFlush(newHouse("待审核一", "杭州市上城区1号", "1000000", List.of()));
+        SecondHandHouse second = repository.saveAndFlush(newHouse("待审核二", "杭州市上城区2号", "1100000", List.of()));
+        SecondHandHouse third = repository.saveAndFlush(newHouse("待审核三", "杭州市上城区3号", "1200000", List.of()));
+        SecondHandHouse approved = newHouse("已上架", "杭州市上城区4号", "1300000", List.of());
+        approved.setStatus(ListingStatus.APPROVED);
+        repository.saveAndFlush(approved);
+
+        List<HouseModerationItem> firstPage = repository.findModerationQueue(ListingStatus.PENDING_REVIEW, Limit.of(2));
+        assertThat(firstPage).extracting(HouseModerationItem::id).containsExactly(first.getId(), second.getId());
+        HouseModerationCursor cursor = HouseModerationCursor.decode(HouseModerationCursor.after(firstPage.get(1)).encode());
+        assertThat(repository.findModerationQueueAfter(ListingStatus.PENDING_REVIEW, cursor.createdAt(), cursor.id(),
+                Limit.of(2)))
+                .extracting(HouseModerationItem::id)
+                .containsExactly(third.getId());
+
+        int updated = repository.updateReviewStatus(List.of(first.getId(), approved.getId()),
+                ListingStatus.PENDING_REVIEW, ListingStatus.REJECTED, "admin", "信息不完整", OffsetDateTime.now());
+        assertThat(updated).isEqualTo(1);
+        assertThat(repository.findById(first.getId())).get()
+                .extracting(SecondHandHouse::getStatus, SecondHandHouse::getReviewedBy)
+                .containsExactly(ListingStatus.REJECTED, "admin");
+        assertThat(repository.findModerationQueue(ListingStatus.PENDING_REVIEW, Limit.of(10)))
+                .extracting(HouseModerationItem::id)
+                .containsExactly(second.getId(), third.getId());
+    }
+
+    private SecondHandHouse newHouse(String title, String address, String price, List<String> keywords) {
+        SecondHandHouse house = new SecondHandHouse();
+        house.setTitle(title);
+        house.setAddress(address);
+        house.setPrice(new BigDecimal(price));
+        house.setDownPayment(new BigDecimal("200000"));
+        house.setArea(new BigDecimal("98"));
+        house.setSellerUsername("seller01");
+        house.setSellerName("张三");
+        house.setContactNumber("13800138000");
+        house.setListingDate(LocalDate.now().plusDays(2));
+        house.setKeywords(keywords);
+        return house;
+    }
 }